@@ -1,12 +1,15 @@
 package com.ridesharing.driverlocationservice.controller;
 
 import com.ridesharing.driverlocationservice.dto.*;
+import com.ridesharing.driverlocationservice.model.VehicleType;
 import com.ridesharing.driverlocationservice.service.DriverLocationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -22,30 +25,66 @@ public class LocationController {
         return ResponseEntity.ok("Location updated for driver: " + request.getDriverId());
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<String> updateLocations(@Valid @RequestBody BatchLocationUpdateRequest request) {
+        int updated = driverLocationService.updateLocations(request.getUpdates());
+        return ResponseEntity.ok("Locations updated for " + updated + " drivers");
+    }
+
     @GetMapping("/nearby")
     public ResponseEntity<List<NearbyDriverResponse>> findNearbyDrivers(
             @RequestParam Double latitude,
             @RequestParam Double longitude,
-            @RequestParam(defaultValue = "5.0") Double radiusInKm) {
-        List<NearbyDriverResponse> drivers = driverLocationService.findNearbyDrivers(latitude, longitude, radiusInKm);
+            @RequestParam(defaultValue = "5.0") Double radiusInKm,
+            @RequestParam(required = false) VehicleType vehicleType) {
+        List<NearbyDriverResponse> drivers =
+                driverLocationService.findNearbyDrivers(latitude, longitude, radiusInKm, vehicleType);
         return ResponseEntity.ok(drivers);
     }
 
+    @PostMapping("/nearby/batch")
+    public ResponseEntity<List<BatchNearbyResponse>> findNearbyDriversBatch(
+            @Valid @RequestBody BatchNearbyRequest request) {
+        List<BatchNearbyResponse> results = driverLocationService.findNearbyDriversBatch(request.getQueries());
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<List<NearbyDriverResponse>> findNearestDrivers(
+            @RequestParam Double latitude,
+            @RequestParam Double longitude,
+            @RequestParam(defaultValue = "5") Integer k,
+            @RequestParam(defaultValue = "10.0") Double maxRadiusInKm,
+            @RequestParam(required = false) VehicleType vehicleType) {
+        List<NearbyDriverResponse> drivers =
+                driverLocationService.findNearestDrivers(latitude, longitude, k, maxRadiusInKm, vehicleType);
+        return ResponseEntity.ok(drivers);
+    }
+
+    @GetMapping("/heatmap")
+    public ResponseEntity<HeatmapResponse> getSupplyHeatmap() {
+        return ResponseEntity.ok(driverLocationService.getSupplyHeatmap());
+    }
+
     @GetMapping("/driver/{driverId}")
     public ResponseEntity<DriverLocationResponse> getDriverLocation(@PathVariable Long driverId) {
         DriverLocationResponse response = driverLocationService.getDriverLocation(driverId);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/driver/{driverId}/trail")
+    public ResponseEntity<List<TrailPointResponse>> getDriverTrail(
+            @PathVariable Long driverId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(1);
+        return ResponseEntity.ok(driverLocationService.getDriverTrail(driverId, start, end));
+    }
+
     @DeleteMapping("/driver/{driverId}")
     public ResponseEntity<String> removeDriver(@PathVariable Long driverId) {
         driverLocationService.removeDriver(driverId);
         return ResponseEntity.ok("Driver " + driverId + " removed from tracking");
     }
-
-    @PostMapping("/simulate")
-    public ResponseEntity<String> simulateDrivers() {
-        driverLocationService.simulateDrivers();
-        return ResponseEntity.ok("10 drivers simulated in Delhi NCR area");
-    }
 }
@@ -0,0 +1,36 @@
+package com.ridesharing.driverlocationservice.controller;
+
+import com.ridesharing.driverlocationservice.dto.SimulationJobResponse;
+import com.ridesharing.driverlocationservice.dto.SimulationRequest;
+import com.ridesharing.driverlocationservice.service.FleetSimulator;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Load-generator endpoints; only mapped under the {@code simulation} profile so a
+ * production instance never exposes a way to flood the store with fake drivers.
+ */
+@RestController
+@RequestMapping("/locations/simulate")
+@Profile("simulation")
+@RequiredArgsConstructor
+public class SimulationController {
+
+    private final FleetSimulator fleetSimulator;
+
+    @PostMapping
+    public ResponseEntity<SimulationJobResponse> startSimulation(
+            @Valid @RequestBody(required = false) SimulationRequest request) {
+        SimulationJobResponse job = fleetSimulator.start(request != null ? request : new SimulationRequest());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<SimulationJobResponse> getSimulation(@PathVariable String jobId) {
+        return ResponseEntity.ok(fleetSimulator.getJob(jobId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLocationUpdateRequest {
+
+    @NotEmpty(message = "At least one location update is required")
+    @Size(max = 10000, message = "A batch may contain at most 10000 updates")
+    private List<@Valid LocationUpdateRequest> updates;
+}
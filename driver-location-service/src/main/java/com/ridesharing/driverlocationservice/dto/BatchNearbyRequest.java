@@ -0,0 +1,22 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchNearbyRequest {
+
+    @NotEmpty(message = "At least one nearby query is required")
+    @Size(max = 5000, message = "A batch may contain at most 5000 queries")
+    private List<@Valid NearbyQuery> queries;
+}
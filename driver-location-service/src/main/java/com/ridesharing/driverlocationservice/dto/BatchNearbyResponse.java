@@ -0,0 +1,18 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchNearbyResponse {
+
+    private Long queryId;
+    private List<NearbyDriverResponse> drivers;
+}
@@ -0,0 +1,19 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapCellResponse {
+
+    private Integer row;
+    private Integer col;
+    private VehicleType vehicleType;
+    private Integer count;
+}
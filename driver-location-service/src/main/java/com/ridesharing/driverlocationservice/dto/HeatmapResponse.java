@@ -0,0 +1,21 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapResponse {
+
+    // row = floor((lat + 90) / cellSizeDegrees), col = floor((lng + 180) / cellSizeDegrees)
+    private Double cellSizeDegrees;
+    private LocalDateTime generatedAt;
+    private List<HeatmapCellResponse> cells;
+}
@@ -1,5 +1,6 @@
 package com.ridesharing.driverlocationservice.dto;
 
+import com.ridesharing.driverlocationservice.model.VehicleType;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,6 +22,9 @@ public class LocationUpdateRequest {
     @NotNull(message = "Longitude is required")
     private Double longitude;
 
+    // optional — when absent the driver keeps its last known type (location.default-vehicle-type if none)
+    private VehicleType vehicleType;
+
     @Builder.Default
     private Boolean isAvailable = true;
 }
@@ -1,5 +1,6 @@
 package com.ridesharing.driverlocationservice.dto;
 
+import com.ridesharing.driverlocationservice.model.VehicleType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,5 +15,6 @@ public class NearbyDriverResponse {
     private Long driverId;
     private Double latitude;
     private Double longitude;
+    private VehicleType vehicleType;
     private Double distanceInKm;
 }
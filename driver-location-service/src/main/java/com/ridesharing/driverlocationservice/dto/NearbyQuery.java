@@ -0,0 +1,32 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyQuery {
+
+    // caller's correlation id (e.g. a ride id), echoed back in the response
+    @NotNull(message = "Query ID is required")
+    private Long queryId;
+
+    @NotNull(message = "Latitude is required")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    private Double longitude;
+
+    @Positive(message = "Radius must be positive")
+    @Builder.Default
+    private Double radiusInKm = 5.0;
+
+    private VehicleType vehicleType;
+}
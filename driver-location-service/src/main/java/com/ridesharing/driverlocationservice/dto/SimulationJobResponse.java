@@ -0,0 +1,26 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationJobResponse {
+
+    private String jobId;
+    private String status;
+    private Integer drivers;
+    private Integer durationSeconds;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // Filled in once the job has COMPLETED or FAILED
+    private SimulationReport report;
+    private String error;
+}
@@ -0,0 +1,30 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationReport {
+
+    private String store;
+    private Integer drivers;
+    private Double elapsedSeconds;
+
+    private Long pingsSent;
+    private Double pingsPerSecond;
+    private Long updateBatches;
+    private Double updateBatchP50Ms;
+    private Double updateBatchP95Ms;
+    private Double updateBatchP99Ms;
+
+    private Long queries;
+    private Double queriesPerSecond;
+    private Double queryP50Ms;
+    private Double queryP95Ms;
+    private Double queryP99Ms;
+}
@@ -0,0 +1,69 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationRequest {
+
+    @Builder.Default
+    @Min(value = 1, message = "At least one driver is required")
+    @Max(value = 1_000_000, message = "At most 1,000,000 drivers can be simulated")
+    private Integer drivers = 10_000;
+
+    @Builder.Default
+    @Min(value = 1, message = "Duration must be at least 1 second")
+    @Max(value = 600, message = "Duration must be at most 600 seconds")
+    private Integer durationSeconds = 30;
+
+    @Builder.Default
+    @Min(value = 100, message = "Ping interval must be at least 100ms")
+    private Integer pingIntervalMs = 4000;
+
+    @Builder.Default
+    @DecimalMin(value = "0.0", message = "Availability churn must be between 0 and 1")
+    @DecimalMax(value = "1.0", message = "Availability churn must be between 0 and 1")
+    private Double availabilityChurn = 0.02;
+
+    @Builder.Default
+    @Positive(message = "Speed must be positive")
+    private Double speedKmh = 30.0;
+
+    @Builder.Default
+    private Double centerLatitude = 28.6139;
+
+    @Builder.Default
+    private Double centerLongitude = 77.2090;
+
+    @Builder.Default
+    @Positive(message = "Spread must be positive")
+    private Double spreadKm = 15.0;
+
+    @Builder.Default
+    @Min(value = 1, message = "At least one writer thread is required")
+    @Max(value = 64, message = "At most 64 writer threads")
+    private Integer writerThreads = 4;
+
+    @Builder.Default
+    @Min(value = 0, message = "Query threads cannot be negative")
+    @Max(value = 64, message = "At most 64 query threads")
+    private Integer queryThreads = 4;
+
+    @Builder.Default
+    @Positive(message = "Search radius must be positive")
+    private Double searchRadiusInKm = 3.0;
+
+    // Simulated drivers use ids from here upwards so they never collide with real drivers
+    @Builder.Default
+    private Long firstDriverId = 1_000_000_000L;
+}
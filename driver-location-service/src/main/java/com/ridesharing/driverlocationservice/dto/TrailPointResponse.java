@@ -0,0 +1,20 @@
+package com.ridesharing.driverlocationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrailPointResponse {
+
+    private Double latitude;
+    private Double longitude;
+    private Boolean isAvailable;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,112 @@
+package com.ridesharing.driverlocationservice.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size lat/lng grid — every coordinate maps to a cell id packing (row, col)
+ * into a single long, so cells can be used as cheap map keys and Redis key suffixes.
+ */
+public final class GeoGrid {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE_LATITUDE = 110.574;
+    private static final double KM_PER_DEGREE_LONGITUDE = 111.320;
+
+    private final double cellSizeDegrees;
+
+    public GeoGrid(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSizeDegrees);
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    public double getCellSizeDegrees() {
+        return cellSizeDegrees;
+    }
+
+    public int row(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    public int col(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellSizeDegrees);
+    }
+
+    public long cellOf(double latitude, double longitude) {
+        return pack(row(latitude), col(longitude));
+    }
+
+    public static long pack(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    public static int rowOf(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    public static int colOf(long cell) {
+        return (int) cell;
+    }
+
+    public double centerLatitude(long cell) {
+        return (rowOf(cell) + 0.5) * cellSizeDegrees - 90.0;
+    }
+
+    public double centerLongitude(long cell) {
+        return (colOf(cell) + 0.5) * cellSizeDegrees - 180.0;
+    }
+
+    /** Number of rows either side of the centre row needed to cover the radius. */
+    public int rowSteps(double radiusInKm) {
+        return (int) Math.ceil(radiusInKm / KM_PER_DEGREE_LATITUDE / cellSizeDegrees);
+    }
+
+    /** Number of columns either side of the centre column needed to cover the radius at this latitude. */
+    public int colSteps(double latitude, double radiusInKm) {
+        double kmPerDegree = KM_PER_DEGREE_LONGITUDE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        return (int) Math.ceil(radiusInKm / kmPerDegree / cellSizeDegrees);
+    }
+
+    /** Shortest side of a cell in km at this latitude — a lower bound on the distance crossed per ring. */
+    public double minCellSideKm(double latitude) {
+        double heightKm = cellSizeDegrees * KM_PER_DEGREE_LATITUDE;
+        double widthKm = cellSizeDegrees * KM_PER_DEGREE_LONGITUDE * Math.cos(Math.toRadians(latitude));
+        return Math.max(Math.min(heightKm, widthKm), 0.0);
+    }
+
+    /**
+     * Cells overlapped by the circle's bounding box. The longitude span is taken at the
+     * box's poleward edge, where a degree of longitude is shortest, so the box always
+     * contains the circle; a small circle inside one cell yields just that cell.
+     */
+    public List<Long> cellsWithin(double latitude, double longitude, double radiusInKm) {
+        double latitudeSpan = radiusInKm / KM_PER_DEGREE_LATITUDE;
+        double polewardLatitude = Math.min(Math.abs(latitude) + latitudeSpan, 90.0);
+        double kmPerDegreeLongitude = KM_PER_DEGREE_LONGITUDE * Math.max(Math.cos(Math.toRadians(polewardLatitude)), 0.01);
+        double longitudeSpan = radiusInKm / kmPerDegreeLongitude;
+
+        int minRow = row(latitude - latitudeSpan);
+        int maxRow = row(latitude + latitudeSpan);
+        int minCol = col(longitude - longitudeSpan);
+        int maxCol = col(longitude + longitudeSpan);
+
+        List<Long> cells = new ArrayList<>((maxRow - minRow + 1) * (maxCol - minCol + 1));
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                cells.add(pack(r, c));
+            }
+        }
+        return cells;
+    }
+
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,9 @@
+package com.ridesharing.driverlocationservice.model;
+
+public enum VehicleType {
+    AUTO,
+    MINI,
+    SEDAN,
+    SUV,
+    PREMIUM
+}
@@ -0,0 +1,50 @@
+package com.ridesharing.driverlocationservice.repository;
+
+import com.ridesharing.driverlocationservice.dto.DriverLocationResponse;
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.dto.NearbyDriverResponse;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Spatial index for driver positions. Selected per deployment with
+ * {@code location.store} — {@code redis} (default, shared across replicas)
+ * or {@code memory} (in-JVM grid, single-replica or benchmarking).
+ */
+public interface DriverLocationStore {
+
+    /** Writes a batch of updates; callers pass at most one update per driver. */
+    void saveAll(Collection<LocationUpdateRequest> updates);
+
+    /**
+     * Available drivers within the radius, nearest first, at most {@code limit} of them.
+     * A null vehicle type matches every type.
+     */
+    List<NearbyDriverResponse> findNearby(double latitude, double longitude, double radiusInKm,
+                                          VehicleType vehicleType, int limit);
+
+    Optional<DriverLocationResponse> findByDriverId(Long driverId);
+
+    /** Current vehicle type of each known driver; unknown drivers are absent from the map. */
+    Map<Long, VehicleType> findVehicleTypes(Collection<Long> driverIds);
+
+    void remove(Long driverId);
+
+    /** Removes every driver whose last update is older than the cutoff; returns how many were evicted. */
+    int evictStale(long lastSeenBeforeEpochMillis);
+
+    /** Number of drivers currently tracked. */
+    long size();
+
+    /** Visits the position and vehicle type of every available driver, e.g. to aggregate supply. */
+    void forEachAvailable(AvailableDriverConsumer consumer);
+
+    @FunctionalInterface
+    interface AvailableDriverConsumer {
+        void accept(double latitude, double longitude, VehicleType vehicleType);
+    }
+}
@@ -0,0 +1,306 @@
+package com.ridesharing.driverlocationservice.repository;
+
+import com.ridesharing.driverlocationservice.dto.DriverLocationResponse;
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.dto.NearbyDriverResponse;
+import com.ridesharing.driverlocationservice.geo.GeoGrid;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM spatial index — a fixed lat/lng grid whose cells hold driver ids and
+ * coordinates in primitive arrays. Cells are guarded by a fixed pool of striped
+ * read/write locks, so writers in different cells never contend and readers
+ * only block on writers of the same stripe.
+ *
+ * Like the Redis store, only available drivers are kept in the grid — one grid per
+ * vehicle type — and the directory holds every driver's last position for point lookups.
+ */
+@Repository
+@ConditionalOnProperty(name = "location.store", havingValue = "memory")
+public class InMemoryDriverLocationStore implements DriverLocationStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final GeoGrid grid;
+    private final Map<VehicleType, Map<Long, Cell>> cellsByType = new EnumMap<>(VehicleType.class);
+    private final Map<Long, DriverEntry> directory = new ConcurrentHashMap<>();
+    private final ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
+
+    public InMemoryDriverLocationStore(@Value("${location.memory.cell-size-degrees:0.01}") double cellSizeDegrees) {
+        this.grid = new GeoGrid(cellSizeDegrees);
+        for (VehicleType type : VehicleType.values()) {
+            cellsByType.put(type, new ConcurrentHashMap<>());
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<LocationUpdateRequest> updates) {
+        for (LocationUpdateRequest request : updates) {
+            save(request.getDriverId(), request.getLatitude(), request.getLongitude(),
+                    request.getVehicleType(), Boolean.TRUE.equals(request.getIsAvailable()));
+        }
+    }
+
+    private void save(long driverId, double latitude, double longitude, VehicleType vehicleType, boolean available) {
+        DriverEntry updated = new DriverEntry(latitude, longitude, grid.cellOf(latitude, longitude), vehicleType,
+                available, System.currentTimeMillis());
+        // compute() serialises concurrent updates of the same driver, keeping grid and directory in step
+        directory.compute(driverId, (id, previous) -> {
+            if (previous != null && previous.available()
+                    && (!available || previous.cell() != updated.cell() || previous.vehicleType() != vehicleType)) {
+                withWriteLock(previous.vehicleType(), previous.cell(), cell -> cell.remove(driverId));
+            }
+            if (available) {
+                withWriteLock(vehicleType, updated.cell(), cell -> cell.put(driverId, latitude, longitude));
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Scans rings of cells outward from the query cell, keeping the best {@code limit}
+     * candidates in a max-heap, and stops as soon as no unvisited ring can beat the
+     * current worst candidate.
+     */
+    @Override
+    public List<NearbyDriverResponse> findNearby(double latitude, double longitude, double radiusInKm,
+                                                 VehicleType vehicleType, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        VehicleType[] types = vehicleType != null ? new VehicleType[]{vehicleType} : VehicleType.values();
+
+        int centerRow = grid.row(latitude);
+        int centerCol = grid.col(longitude);
+        int rowSteps = grid.rowSteps(radiusInKm);
+        int colSteps = grid.colSteps(latitude, radiusInKm);
+        int maxRing = Math.max(rowSteps, colSteps);
+        double ringWidthKm = grid.minCellSideKm(latitude);
+
+        PriorityQueue<Candidate> best = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::distanceInKm).reversed());
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (best.size() == limit && best.peek().distanceInKm() <= (ring - 1) * ringWidthKm) {
+                break;
+            }
+            for (int dr = -Math.min(ring, rowSteps); dr <= Math.min(ring, rowSteps); dr++) {
+                boolean edgeRow = Math.abs(dr) == ring;
+                for (int dc = -Math.min(ring, colSteps); dc <= Math.min(ring, colSteps); dc++) {
+                    if (!edgeRow && Math.abs(dc) != ring) {
+                        continue;
+                    }
+                    long cellId = GeoGrid.pack(centerRow + dr, centerCol + dc);
+                    for (VehicleType type : types) {
+                        scanCell(type, cellId, latitude, longitude, radiusInKm, limit, best);
+                    }
+                }
+            }
+        }
+
+        List<Candidate> ordered = new ArrayList<>(best);
+        ordered.sort(Comparator.comparingDouble(Candidate::distanceInKm));
+
+        List<NearbyDriverResponse> nearbyDrivers = new ArrayList<>(ordered.size());
+        for (Candidate candidate : ordered) {
+            nearbyDrivers.add(NearbyDriverResponse.builder()
+                    .driverId(candidate.driverId())
+                    .latitude(candidate.latitude())
+                    .longitude(candidate.longitude())
+                    .vehicleType(candidate.vehicleType())
+                    .distanceInKm(Math.round(candidate.distanceInKm() * 100.0) / 100.0)
+                    .build());
+        }
+        return nearbyDrivers;
+    }
+
+    private void scanCell(VehicleType vehicleType, long cellId, double latitude, double longitude,
+                          double radiusInKm, int limit, PriorityQueue<Candidate> best) {
+        Cell cell = cellsByType.get(vehicleType).get(cellId);
+        if (cell == null) {
+            return;
+        }
+
+        Lock readLock = lockFor(cellId).readLock();
+        readLock.lock();
+        try {
+            for (int i = 0; i < cell.size; i++) {
+                double distance = GeoGrid.distanceKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]);
+                if (distance > radiusInKm) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(new Candidate(cell.driverIds[i], cell.latitudes[i], cell.longitudes[i], vehicleType, distance));
+                } else if (distance < best.peek().distanceInKm()) {
+                    best.poll();
+                    best.add(new Candidate(cell.driverIds[i], cell.latitudes[i], cell.longitudes[i], vehicleType, distance));
+                }
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<DriverLocationResponse> findByDriverId(Long driverId) {
+        DriverEntry entry = directory.get(driverId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        return Optional.of(DriverLocationResponse.builder()
+                .driverId(driverId)
+                .latitude(entry.latitude())
+                .longitude(entry.longitude())
+                .vehicleType(entry.vehicleType())
+                .isAvailable(entry.available())
+                .build());
+    }
+
+    @Override
+    public Map<Long, VehicleType> findVehicleTypes(Collection<Long> driverIds) {
+        Map<Long, VehicleType> vehicleTypes = new HashMap<>();
+        for (Long driverId : driverIds) {
+            DriverEntry entry = directory.get(driverId);
+            if (entry != null) {
+                vehicleTypes.put(driverId, entry.vehicleType());
+            }
+        }
+        return vehicleTypes;
+    }
+
+    @Override
+    public void remove(Long driverId) {
+        directory.computeIfPresent(driverId, (id, previous) -> {
+            if (previous.available()) {
+                withWriteLock(previous.vehicleType(), previous.cell(), cell -> cell.remove(driverId));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int evictStale(long lastSeenBeforeEpochMillis) {
+        int evicted = 0;
+        for (Map.Entry<Long, DriverEntry> entry : directory.entrySet()) {
+            if (entry.getValue().lastSeenEpochMillis() >= lastSeenBeforeEpochMillis) {
+                continue;
+            }
+            long driverId = entry.getKey();
+            // re-check under the driver's bin lock so a concurrent ping wins over the sweep
+            DriverEntry[] removed = new DriverEntry[1];
+            directory.computeIfPresent(driverId, (id, current) -> {
+                if (current.lastSeenEpochMillis() >= lastSeenBeforeEpochMillis) {
+                    return current;
+                }
+                if (current.available()) {
+                    withWriteLock(current.vehicleType(), current.cell(), cell -> cell.remove(driverId));
+                }
+                removed[0] = current;
+                return null;
+            });
+            if (removed[0] != null) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    @Override
+    public long size() {
+        return directory.size();
+    }
+
+    @Override
+    public void forEachAvailable(AvailableDriverConsumer consumer) {
+        cellsByType.forEach((vehicleType, cells) -> cells.forEach((cellId, cell) -> {
+            Lock readLock = lockFor(cellId).readLock();
+            readLock.lock();
+            try {
+                for (int i = 0; i < cell.size; i++) {
+                    consumer.accept(cell.latitudes[i], cell.longitudes[i], vehicleType);
+                }
+            } finally {
+                readLock.unlock();
+            }
+        }));
+    }
+
+    private void withWriteLock(VehicleType vehicleType, long cellId, Consumer<Cell> action) {
+        Lock writeLock = lockFor(cellId).writeLock();
+        writeLock.lock();
+        try {
+            action.accept(cellsByType.get(vehicleType).computeIfAbsent(cellId, id -> new Cell()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private ReadWriteLock lockFor(long cellId) {
+        return locks[(Long.hashCode(cellId) * 0x9E3779B9 >>> 16) & (LOCK_STRIPES - 1)];
+    }
+
+    private record DriverEntry(double latitude, double longitude, long cell, VehicleType vehicleType,
+                               boolean available, long lastSeenEpochMillis) {
+    }
+
+    private record Candidate(long driverId, double latitude, double longitude, VehicleType vehicleType,
+                             double distanceInKm) {
+    }
+
+    private static final class Cell {
+
+        private long[] driverIds = new long[8];
+        private double[] latitudes = new double[8];
+        private double[] longitudes = new double[8];
+        private int size;
+
+        void put(long driverId, double latitude, double longitude) {
+            int index = indexOf(driverId);
+            if (index < 0) {
+                if (size == driverIds.length) {
+                    int capacity = size * 2;
+                    driverIds = Arrays.copyOf(driverIds, capacity);
+                    latitudes = Arrays.copyOf(latitudes, capacity);
+                    longitudes = Arrays.copyOf(longitudes, capacity);
+                }
+                index = size++;
+                driverIds[index] = driverId;
+            }
+            latitudes[index] = latitude;
+            longitudes[index] = longitude;
+        }
+
+        void remove(long driverId) {
+            int index = indexOf(driverId);
+            if (index < 0) {
+                return;
+            }
+            int last = --size;
+            driverIds[index] = driverIds[last];
+            latitudes[index] = latitudes[last];
+            longitudes[index] = longitudes[last];
+        }
+
+        private int indexOf(long driverId) {
+            for (int i = 0; i < size; i++) {
+                if (driverIds[i] == driverId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package com.ridesharing.driverlocationservice.repository;
+
+import com.ridesharing.driverlocationservice.dto.DriverLocationResponse;
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.dto.NearbyDriverResponse;
+import com.ridesharing.driverlocationservice.geo.GeoGrid;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.geo.*;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static com.ridesharing.driverlocationservice.repository.RedisLocationKeys.*;
+
+/**
+ * Redis GEO store sharded by region cell.
+ *
+ * Instead of one hot {@code driver:locations} sorted set, every region cell owns its own
+ * keys — {@code driver:locations:{cell}} (all drivers) and one
+ * {@code driver:locations:available:<TYPE>:{cell}} per vehicle type (available drivers
+ * only), so a typed search never touches drivers of other types. The cell id is a hash
+ * tag, so all keys of a cell land on the same cluster slot while different cells spread
+ * across shards. {@code driver:cell:<id>} remembers each driver's current placement
+ * ({@code <TYPE>/{cell}}) so a driver crossing a cell boundary or changing vehicle is
+ * removed from the old keys.
+ *
+ * Heartbeats — {@code driver:heartbeats:{cell}} scores each driver by its last update time,
+ * and {@code driver:cells} lists the cells that have ever held a driver, so the sweeper can
+ * find silent drivers with one ZRANGEBYSCORE per cell instead of scanning the geo sets.
+ */
+@Repository
+@ConditionalOnProperty(name = "location.store", havingValue = "redis", matchIfMissing = true)
+public class RedisDriverLocationStore implements DriverLocationStore {
+
+    // Redis GEO encoding: 26 bits per axis over the Web Mercator latitude range
+    private static final int GEO_STEP_BITS = 26;
+    private static final double GEO_STEPS = 1L << GEO_STEP_BITS;
+    private static final double GEO_LATITUDE_MIN = -85.05112878;
+    private static final double GEO_LATITUDE_MAX = 85.05112878;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final GeoGrid shardGrid;
+
+    public RedisDriverLocationStore(RedisTemplate<String, String> redisTemplate,
+                                    @Value("${location.redis.shard-cell-size-degrees:0.5}") double shardCellSizeDegrees) {
+        this.redisTemplate = redisTemplate;
+        this.shardGrid = new GeoGrid(shardCellSizeDegrees);
+    }
+
+    /**
+     * Two round trips per batch: one MGET of the drivers' current placements, then one
+     * pipeline that evicts movers from their old keys, GEOADDs into each touched key and
+     * records the new placements. Cells entered by the batch are registered in
+     * {@code driver:cells} only once that pipeline has completed (see {@link #pruneEmptyCells}).
+     */
+    @Override
+    public void saveAll(Collection<LocationUpdateRequest> updates) {
+        List<LocationUpdateRequest> requests = new ArrayList<>(updates);
+        List<String> placementKeys = requests.stream()
+                .map(request -> DRIVER_CELL_KEY + request.getDriverId())
+                .toList();
+        List<String> previousPlacements = redisTemplate.opsForValue().multiGet(placementKeys);
+
+        Map<String, Map<String, Point>> geoAdds = new HashMap<>();
+        Map<String, List<String>> removals = new HashMap<>();
+        Map<String, Set<ZSetOperations.TypedTuple<String>>> heartbeatsByCell = new HashMap<>();
+        Map<String, String> movedPlacements = new HashMap<>();
+        Set<String> enteredCells = new HashSet<>();
+        double now = System.currentTimeMillis();
+
+        for (int i = 0; i < requests.size(); i++) {
+            LocationUpdateRequest request = requests.get(i);
+            String driverId = request.getDriverId().toString();
+            String cell = cellOf(request.getLatitude(), request.getLongitude());
+            String placement = placement(request.getVehicleType(), cell);
+            String previousPlacement = previousPlacements != null ? previousPlacements.get(i) : null;
+            Point point = new Point(request.getLongitude(), request.getLatitude());
+
+            if (!placement.equals(previousPlacement)) {
+                if (previousPlacement != null) {
+                    String previousCell = cellOfPlacement(previousPlacement);
+                    removals.computeIfAbsent(availableKey(typeOfPlacement(previousPlacement), previousCell),
+                            k -> new ArrayList<>()).add(driverId);
+                    if (!previousCell.equals(cell)) {
+                        removals.computeIfAbsent(DRIVER_LOCATIONS_KEY + previousCell, k -> new ArrayList<>()).add(driverId);
+                        removals.computeIfAbsent(HEARTBEATS_KEY + previousCell, k -> new ArrayList<>()).add(driverId);
+                        enteredCells.add(cell);
+                    }
+                } else {
+                    enteredCells.add(cell);
+                }
+                movedPlacements.put(DRIVER_CELL_KEY + driverId, placement);
+            }
+
+            geoAdds.computeIfAbsent(DRIVER_LOCATIONS_KEY + cell, k -> new LinkedHashMap<>()).put(driverId, point);
+            heartbeatsByCell.computeIfAbsent(cell, c -> new HashSet<>())
+                    .add(ZSetOperations.TypedTuple.of(driverId, now));
+            String availableKey = availableKey(request.getVehicleType(), cell);
+            if (Boolean.TRUE.equals(request.getIsAvailable())) {
+                geoAdds.computeIfAbsent(availableKey, k -> new LinkedHashMap<>()).put(driverId, point);
+            } else {
+                removals.computeIfAbsent(availableKey, k -> new ArrayList<>()).add(driverId);
+            }
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                removals.forEach((key, driverIds) -> ops.opsForZSet().remove(key, driverIds.toArray()));
+                geoAdds.forEach((key, locations) -> ops.opsForGeo().add(key, locations));
+                heartbeatsByCell.forEach((cell, heartbeats) ->
+                        ops.opsForZSet().add(HEARTBEATS_KEY + cell, heartbeats));
+                if (!movedPlacements.isEmpty()) {
+                    ops.opsForValue().multiSet(movedPlacements);
+                }
+                return null;
+            }
+        });
+        // a cluster pipeline does not order commands across slots, so this waits for the GEOADDs
+        if (!enteredCells.isEmpty()) {
+            redisTemplate.opsForSet().add(ACTIVE_CELLS_KEY, enteredCells.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Fans out only to the region cells overlapping the search circle — and only to the
+     * requested vehicle type's keys, or every type's when none is given — as one pipeline
+     * of GEORADIUS commands, then merges their (already distance-sorted) results.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<NearbyDriverResponse> findNearby(double latitude, double longitude, double radiusInKm,
+                                                 VehicleType vehicleType, int limit) {
+        Circle circle = new Circle(new Point(longitude, latitude), new Distance(radiusInKm, Metrics.KILOMETERS));
+        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
+                .includeCoordinates()
+                .includeDistance()
+                .sortAscending()
+                .limit(limit);
+        VehicleType[] types = vehicleType != null ? new VehicleType[]{vehicleType} : VehicleType.values();
+
+        List<VehicleType> queriedTypes = new ArrayList<>();
+        List<String> queriedKeys = new ArrayList<>();
+        for (Long cell : shardGrid.cellsWithin(latitude, longitude, radiusInKm)) {
+            for (VehicleType type : types) {
+                queriedTypes.add(type);
+                queriedKeys.add(availableKey(type, hashTag(cell)));
+            }
+        }
+
+        List<Object> resultsByKey = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String key : queriedKeys) {
+                    ops.opsForGeo().radius(key, circle, args);
+                }
+                return null;
+            }
+        });
+
+        List<NearbyDriverResponse> merged = new ArrayList<>();
+        for (int i = 0; i < queriedKeys.size(); i++) {
+            // pipelined geo results are not run through the template's serializers
+            GeoResults<RedisGeoCommands.GeoLocation<Object>> results =
+                    (GeoResults<RedisGeoCommands.GeoLocation<Object>>) resultsByKey.get(i);
+            if (results == null) {
+                continue;
+            }
+            for (GeoResult<RedisGeoCommands.GeoLocation<Object>> result : results) {
+                Point point = result.getContent().getPoint();
+                merged.add(NearbyDriverResponse.builder()
+                        .driverId(Long.parseLong(memberName(result.getContent().getName())))
+                        .latitude(point.getY())
+                        .longitude(point.getX())
+                        .vehicleType(queriedTypes.get(i))
+                        .distanceInKm(Math.round(result.getDistance().getValue() * 100.0) / 100.0)
+                        .build());
+            }
+        }
+        merged.sort(Comparator.comparingDouble(NearbyDriverResponse::getDistanceInKm));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    @Override
+    public Optional<DriverLocationResponse> findByDriverId(Long driverId) {
+        String placement = redisTemplate.opsForValue().get(DRIVER_CELL_KEY + driverId);
+        if (placement == null) {
+            return Optional.empty();
+        }
+        String cell = cellOfPlacement(placement);
+        VehicleType vehicleType = typeOfPlacement(placement);
+
+        List<Point> positions = redisTemplate.opsForGeo().position(
+                DRIVER_LOCATIONS_KEY + cell,
+                driverId.toString()
+        );
+
+        if (positions == null || positions.isEmpty() || positions.get(0) == null) {
+            return Optional.empty();
+        }
+
+        Point point = positions.get(0);
+        Double availableScore = redisTemplate.opsForZSet().score(availableKey(vehicleType, cell), driverId.toString());
+
+        return Optional.of(DriverLocationResponse.builder()
+                .driverId(driverId)
+                .latitude(point.getY())
+                .longitude(point.getX())
+                .vehicleType(vehicleType)
+                .isAvailable(availableScore != null)
+                .build());
+    }
+
+    /** One MGET of the drivers' placements. */
+    @Override
+    public Map<Long, VehicleType> findVehicleTypes(Collection<Long> driverIds) {
+        List<Long> ids = new ArrayList<>(driverIds);
+        List<String> placements = redisTemplate.opsForValue().multiGet(
+                ids.stream().map(driverId -> DRIVER_CELL_KEY + driverId).toList());
+        Map<Long, VehicleType> vehicleTypes = new HashMap<>();
+        for (int i = 0; placements != null && i < ids.size(); i++) {
+            if (placements.get(i) != null) {
+                vehicleTypes.put(ids.get(i), typeOfPlacement(placements.get(i)));
+            }
+        }
+        return vehicleTypes;
+    }
+
+    @Override
+    public void remove(Long driverId) {
+        String placement = redisTemplate.opsForValue().get(DRIVER_CELL_KEY + driverId);
+        if (placement == null) {
+            return;
+        }
+        String cell = cellOfPlacement(placement);
+        redisTemplate.opsForZSet().remove(DRIVER_LOCATIONS_KEY + cell, driverId.toString());
+        redisTemplate.opsForZSet().remove(availableKey(typeOfPlacement(placement), cell), driverId.toString());
+        redisTemplate.opsForZSet().remove(HEARTBEATS_KEY + cell, driverId.toString());
+        redisTemplate.delete(DRIVER_CELL_KEY + driverId);
+    }
+
+    /**
+     * One pipelined ZRANGEBYSCORE over every active cell, then one pipeline removing the
+     * silent drivers from their cell keys (every type's available key, since the sweep
+     * does not read placements). A driver pinging mid-sweep may be evicted, but
+     * its next ping re-registers it since its driver:cell key is gone. Cells left empty
+     * are then pruned from {@code driver:cells}.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int evictStale(long lastSeenBeforeEpochMillis) {
+        List<String> cells = activeCells();
+        if (cells.isEmpty()) {
+            return 0;
+        }
+
+        List<Object> staleByCell = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String cell : cells) {
+                    ops.opsForZSet().rangeByScore(HEARTBEATS_KEY + cell, 0, lastSeenBeforeEpochMillis);
+                }
+                return null;
+            }
+        });
+
+        Map<String, Object[]> evictions = new HashMap<>();
+        int evicted = 0;
+        for (int i = 0; i < cells.size(); i++) {
+            Set<String> stale = (Set<String>) staleByCell.get(i);
+            if (stale != null && !stale.isEmpty()) {
+                evictions.put(cells.get(i), stale.toArray());
+                evicted += stale.size();
+            }
+        }
+        if (evictions.isEmpty()) {
+            pruneEmptyCells(cells);
+            return 0;
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                evictions.forEach((cell, members) -> {
+                    ops.opsForZSet().remove(DRIVER_LOCATIONS_KEY + cell, members);
+                    for (VehicleType type : VehicleType.values()) {
+                        ops.opsForZSet().remove(availableKey(type, cell), members);
+                    }
+                    ops.opsForZSet().remove(HEARTBEATS_KEY + cell, members);
+                    List<String> driverCellKeys = new ArrayList<>(members.length);
+                    for (Object member : members) {
+                        driverCellKeys.add(DRIVER_CELL_KEY + member);
+                    }
+                    ops.delete(driverCellKeys);
+                });
+                return null;
+            }
+        });
+        pruneEmptyCells(cells);
+        return evicted;
+    }
+
+    /** Sums the per-cell index sizes in one pipeline. Read-only — it backs a metrics gauge. */
+    @Override
+    public long size() {
+        List<String> cells = activeCells();
+        if (cells.isEmpty()) {
+            return 0;
+        }
+
+        List<Object> sizes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String cell : cells) {
+                    ops.opsForZSet().zCard(DRIVER_LOCATIONS_KEY + cell);
+                }
+                return null;
+            }
+        });
+
+        long total = 0;
+        for (Object cellSize : sizes) {
+            total += cellSize != null ? ((Number) cellSize).longValue() : 0;
+        }
+        return total;
+    }
+
+    /**
+     * One pipelined ZRANGE WITHSCORES over every type's available key of every active cell.
+     * Positions are decoded from the geohash scores, so members are never looked up one by one.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachAvailable(AvailableDriverConsumer consumer) {
+        List<String> cells = activeCells();
+        if (cells.isEmpty()) {
+            return;
+        }
+        VehicleType[] types = VehicleType.values();
+
+        List<Object> driversByKey = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String cell : cells) {
+                    for (VehicleType type : types) {
+                        ops.opsForZSet().rangeWithScores(availableKey(type, cell), 0, -1);
+                    }
+                }
+                return null;
+            }
+        });
+
+        for (int i = 0; i < driversByKey.size(); i++) {
+            Set<ZSetOperations.TypedTuple<Object>> drivers = (Set<ZSetOperations.TypedTuple<Object>>) driversByKey.get(i);
+            if (drivers == null) {
+                continue;
+            }
+            VehicleType type = types[i % types.length];
+            for (ZSetOperations.TypedTuple<Object> driver : drivers) {
+                long geohash = driver.getScore().longValue();
+                consumer.accept(geohashLatitude(geohash), geohashLongitude(geohash), type);
+            }
+        }
+    }
+
+    /** Centre latitude of a Redis GEO score — a 52-bit geohash with latitude in the even bits. */
+    static double geohashLatitude(long geohash) {
+        return GEO_LATITUDE_MIN + (deinterleave(geohash) + 0.5) / GEO_STEPS * (GEO_LATITUDE_MAX - GEO_LATITUDE_MIN);
+    }
+
+    /** Centre longitude of a Redis GEO score; longitude sits in the odd bits. */
+    static double geohashLongitude(long geohash) {
+        return -180.0 + (deinterleave(geohash >>> 1) + 0.5) / GEO_STEPS * 360.0;
+    }
+
+    private static long deinterleave(long bits) {
+        long value = 0;
+        for (int i = 0; i < GEO_STEP_BITS; i++) {
+            value |= ((bits >>> (2 * i)) & 1L) << i;
+        }
+        return value;
+    }
+
+    /**
+     * Drops emptied cells from {@code driver:cells} without a multi-key script, since every
+     * cell's keys live in their own cluster slot: one pipelined ZCARD per cell, an SREM of
+     * the empty ones, then a second ZCARD of just those, re-adding any that filled up in
+     * between. A driver entering a cell registers it only after its GEOADD completed, so its
+     * GEOADD either precedes the recheck (and the recheck restores the cell) or its SADD
+     * follows the SREM — the cell can never stay dropped while it holds a driver.
+     */
+    private void pruneEmptyCells(List<String> cells) {
+        List<String> empty = emptyCells(cells);
+        if (empty.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForSet().remove(ACTIVE_CELLS_KEY, empty.toArray());
+
+        Set<String> refilled = new HashSet<>(empty);
+        refilled.removeAll(emptyCells(empty));
+        if (!refilled.isEmpty()) {
+            redisTemplate.opsForSet().add(ACTIVE_CELLS_KEY, refilled.toArray(new String[0]));
+        }
+    }
+
+    private List<String> emptyCells(List<String> cells) {
+        List<Object> sizes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String cell : cells) {
+                    ops.opsForZSet().zCard(DRIVER_LOCATIONS_KEY + cell);
+                }
+                return null;
+            }
+        });
+
+        List<String> empty = new ArrayList<>();
+        for (int i = 0; i < cells.size(); i++) {
+            Object cellSize = sizes.get(i);
+            if (cellSize == null || ((Number) cellSize).longValue() == 0) {
+                empty.add(cells.get(i));
+            }
+        }
+        return empty;
+    }
+
+    private static String memberName(Object name) {
+        return name instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : name.toString();
+    }
+
+    private List<String> activeCells() {
+        Set<String> cells = redisTemplate.opsForSet().members(ACTIVE_CELLS_KEY);
+        return cells != null ? new ArrayList<>(cells) : List.of();
+    }
+
+    private String cellOf(double latitude, double longitude) {
+        return hashTag(shardGrid.cellOf(latitude, longitude));
+    }
+}
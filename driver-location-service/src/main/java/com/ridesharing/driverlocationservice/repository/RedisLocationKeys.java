@@ -0,0 +1,40 @@
+package com.ridesharing.driverlocationservice.repository;
+
+import com.ridesharing.driverlocationservice.geo.GeoGrid;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+
+/**
+ * Redis key layout of the region-cell sharded keys (see {@link RedisDriverLocationStore}).
+ */
+final class RedisLocationKeys {
+
+    static final String DRIVER_LOCATIONS_KEY = "driver:locations:";
+    static final String AVAILABLE_DRIVER_LOCATIONS_KEY = "driver:locations:available:";
+    static final String DRIVER_CELL_KEY = "driver:cell:";
+    static final String HEARTBEATS_KEY = "driver:heartbeats:";
+    static final String ACTIVE_CELLS_KEY = "driver:cells";
+    static final String PLACEMENT_SEPARATOR = "/";
+
+    private RedisLocationKeys() {
+    }
+
+    static String availableKey(VehicleType vehicleType, String cell) {
+        return AVAILABLE_DRIVER_LOCATIONS_KEY + vehicleType.name() + ":" + cell;
+    }
+
+    static String placement(VehicleType vehicleType, String cell) {
+        return vehicleType.name() + PLACEMENT_SEPARATOR + cell;
+    }
+
+    static String cellOfPlacement(String placement) {
+        return placement.substring(placement.indexOf(PLACEMENT_SEPARATOR) + 1);
+    }
+
+    static VehicleType typeOfPlacement(String placement) {
+        return VehicleType.valueOf(placement.substring(0, placement.indexOf(PLACEMENT_SEPARATOR)));
+    }
+
+    static String hashTag(long cell) {
+        return "{" + GeoGrid.rowOf(cell) + ":" + GeoGrid.colOf(cell) + "}";
+    }
+}
@@ -0,0 +1,373 @@
+package com.ridesharing.driverlocationservice.repository;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.dto.TrailPointResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only driver trajectory log in memory-mapped, time-rolled segment files
+ * ({@code trail-<startEpochMillis>.seg}), local to this service instance.
+ *
+ * Record layout — all varints, so a typical point takes 6-10 bytes:
+ * <pre>
+ *   varint        driverId + 1          (never 0, so a 0 byte marks the end of data)
+ *   zigzag varint time delta in ms      (vs. the driver's previous point in the segment,
+ *                                        or the segment start for its first point)
+ *   zigzag varint latitude  × 1e6 delta (vs. the driver's previous point, or 0)
+ *   zigzag varint longitude × 1e6 delta
+ *   uint8         flags (bit 0 = available)
+ * </pre>
+ *
+ * Appends are queued and written by a single background thread, never on the request
+ * thread; a full queue drops points rather than blocking ingest. A segment rolls when
+ * its time window ends or its file is full, and queries map only the segments whose
+ * window overlaps the requested range.
+ *
+ * The directory must be an absolute path on storage that outlives the process (a mounted
+ * volume in containers), otherwise retention is lost on every restart; startup fails on a
+ * relative path rather than silently writing under the working directory.
+ */
+@Repository
+@Slf4j
+public class TrajectoryStore {
+
+    private static final String SEGMENT_PREFIX = "trail-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAX_RECORD_BYTES = 32;
+    private static final double COORDINATE_SCALE = 1_000_000.0;
+    private static final int FLAG_AVAILABLE = 0x01;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentDurationMs;
+    private final int segmentSizeBytes;
+    private final long retentionMs;
+    private final BlockingQueue<TrailPoint> queue;
+    private final Counter dropped;
+    // start millis -> file, for every segment on disk including the active one
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+
+    private volatile ActiveSegment active;
+    private volatile boolean running;
+    private Thread writer;
+
+    public TrajectoryStore(MeterRegistry meterRegistry,
+                           @Value("${location.trail.enabled:true}") boolean enabled,
+                           @Value("${location.trail.directory:${user.home}/.ridesharing/trails}") String directory,
+                           @Value("${location.trail.segment-duration:1h}") Duration segmentDuration,
+                           @Value("${location.trail.segment-size-mb:64}") int segmentSizeMb,
+                           @Value("${location.trail.retention:7d}") Duration retention,
+                           @Value("${location.trail.queue-capacity:100000}") int queueCapacity) {
+        if (enabled && !Path.of(directory).isAbsolute()) {
+            throw new IllegalStateException(
+                    "location.trail.directory must be an absolute path on a persistent volume: " + directory);
+        }
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentDurationMs = segmentDuration.toMillis();
+        this.segmentSizeBytes = segmentSizeMb * 1024 * 1024;
+        this.retentionMs = retention.toMillis();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropped = Counter.builder("driver.location.trail.dropped")
+                .description("Trail points dropped because the writer queue was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Long start = segmentStart(file);
+                if (start != null) {
+                    segments.put(start, file);
+                }
+            });
+        }
+
+        running = true;
+        writer = new Thread(this::writeLoop, "trail-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Trajectory store writing to {} ({} existing segments)", directory.toAbsolutePath(), segments.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(5_000);
+        }
+    }
+
+    public void append(Collection<LocationUpdateRequest> updates) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (LocationUpdateRequest update : updates) {
+            TrailPoint point = new TrailPoint(update.getDriverId(), now,
+                    (int) Math.round(update.getLatitude() * COORDINATE_SCALE),
+                    (int) Math.round(update.getLongitude() * COORDINATE_SCALE),
+                    Boolean.TRUE.equals(update.getIsAvailable()));
+            if (!queue.offer(point)) {
+                dropped.increment();
+            }
+        }
+    }
+
+    public List<TrailPointResponse> findTrail(Long driverId, LocalDateTime from, LocalDateTime to) {
+        if (!enabled) {
+            return List.of();
+        }
+        long fromMillis = from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long toMillis = to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        List<TrailPointResponse> trail = new ArrayList<>();
+        Long floor = segments.floorKey(fromMillis);
+        for (Map.Entry<Long, Path> segment : segments.tailMap(floor != null ? floor : fromMillis, true).entrySet()) {
+            if (segment.getKey() > toMillis) {
+                break;
+            }
+            ActiveSegment current = active;
+            if (current != null && current.startMillis == segment.getKey()) {
+                scan(current.buffer.duplicate().limit(current.committed).position(0), current.startMillis,
+                        driverId, fromMillis, toMillis, trail);
+            } else {
+                scanFile(segment.getValue(), segment.getKey(), driverId, fromMillis, toMillis, trail);
+            }
+        }
+        return trail;
+    }
+
+    private void scanFile(Path file, long startMillis, long driverId, long fromMillis, long toMillis,
+                          List<TrailPointResponse> trail) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), startMillis,
+                    driverId, fromMillis, toMillis, trail);
+        } catch (IOException ex) {
+            log.warn("Could not read trail segment {}: {}", file, ex.getMessage());
+        }
+    }
+
+    /** Decodes every record (varints can only be skipped by reading them) but keeps state only for the target driver. */
+    private static void scan(ByteBuffer buffer, long startMillis, long driverId, long fromMillis, long toMillis,
+                             List<TrailPointResponse> trail) {
+        long timestamp = startMillis;
+        long latitude = 0;
+        long longitude = 0;
+        while (buffer.hasRemaining() && buffer.get(buffer.position()) != 0) {
+            long recordDriverId;
+            long timeDelta;
+            long latitudeDelta;
+            long longitudeDelta;
+            int flags;
+            try {
+                recordDriverId = readVarint(buffer) - 1;
+                timeDelta = readZigZag(buffer);
+                latitudeDelta = readZigZag(buffer);
+                longitudeDelta = readZigZag(buffer);
+                flags = buffer.get() & 0xFF;
+            } catch (BufferUnderflowException ex) {
+                // record torn by a crash mid-append
+                return;
+            }
+            if (recordDriverId != driverId) {
+                continue;
+            }
+
+            timestamp += timeDelta;
+            latitude += latitudeDelta;
+            longitude += longitudeDelta;
+            if (timestamp >= fromMillis && timestamp <= toMillis) {
+                trail.add(TrailPointResponse.builder()
+                        .latitude(latitude / COORDINATE_SCALE)
+                        .longitude(longitude / COORDINATE_SCALE)
+                        .isAvailable((flags & FLAG_AVAILABLE) != 0)
+                        .timestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()))
+                        .build());
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<TrailPoint> batch = new ArrayList<>(1024);
+        while (running || !queue.isEmpty()) {
+            try {
+                TrailPoint first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 1023);
+                for (TrailPoint point : batch) {
+                    write(point);
+                }
+                active.committed = active.buffer.position();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException ex) {
+                log.error("Failed to append {} trail points", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+        if (active != null) {
+            active.buffer.force();
+        }
+    }
+
+    private void write(TrailPoint point) throws IOException {
+        ActiveSegment segment = active;
+        if (segment == null
+                || point.timestampMillis() >= segment.startMillis + segmentDurationMs
+                || segment.buffer.remaining() < MAX_RECORD_BYTES) {
+            segment = roll(point.timestampMillis());
+        }
+
+        long[] previous = segment.lastPoints.get(point.driverId());
+        MappedByteBuffer buffer = segment.buffer;
+        writeVarint(buffer, point.driverId() + 1);
+        if (previous == null) {
+            writeZigZag(buffer, point.timestampMillis() - segment.startMillis);
+            writeZigZag(buffer, point.latitudeE6());
+            writeZigZag(buffer, point.longitudeE6());
+            segment.lastPoints.put(point.driverId(),
+                    new long[]{point.timestampMillis(), point.latitudeE6(), point.longitudeE6()});
+        } else {
+            writeZigZag(buffer, point.timestampMillis() - previous[0]);
+            writeZigZag(buffer, point.latitudeE6() - previous[1]);
+            writeZigZag(buffer, point.longitudeE6() - previous[2]);
+            previous[0] = point.timestampMillis();
+            previous[1] = point.latitudeE6();
+            previous[2] = point.longitudeE6();
+        }
+        buffer.put((byte) (point.available() ? FLAG_AVAILABLE : 0));
+    }
+
+    private ActiveSegment roll(long startMillis) throws IOException {
+        if (active != null) {
+            active.committed = active.buffer.position();
+            active.buffer.force();
+        }
+        // never reuse a start time — a size-triggered roll in the same millisecond would clash
+        long start = segments.isEmpty() ? startMillis : Math.max(startMillis, segments.lastKey() + 1);
+        Path file = directory.resolve(SEGMENT_PREFIX + start + SEGMENT_SUFFIX);
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes);
+        }
+        ActiveSegment segment = new ActiveSegment(start, buffer);
+        active = segment;
+        segments.put(start, file);
+        deleteExpired(start - retentionMs);
+        return segment;
+    }
+
+    private void deleteExpired(long cutoffMillis) {
+        // a segment is expired once the next one started before the cutoff
+        for (Iterator<Map.Entry<Long, Path>> it = segments.headMap(cutoffMillis, false).entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Path> segment = it.next();
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next > cutoffMillis) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segment.getValue());
+                it.remove();
+            } catch (IOException ex) {
+                log.warn("Could not delete expired trail segment {}: {}", segment.getValue(), ex.getMessage());
+            }
+        }
+    }
+
+    private static Long segmentStart(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static void writeVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static void writeZigZag(ByteBuffer buffer, long value) {
+        writeVarint(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static long readZigZag(ByteBuffer buffer) {
+        long value = readVarint(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private record TrailPoint(long driverId, long timestampMillis, int latitudeE6, int longitudeE6,
+                              boolean available) {
+    }
+
+    /** The segment being written; only the writer thread touches lastPoints and the buffer position. */
+    private static final class ActiveSegment {
+
+        private final long startMillis;
+        private final MappedByteBuffer buffer;
+        private final Map<Long, long[]> lastPoints = new HashMap<>();
+        // bytes readers may see; published after each drained batch
+        private volatile int committed;
+
+        ActiveSegment(long startMillis, MappedByteBuffer buffer) {
+            this.startMillis = startMillis;
+            this.buffer = buffer;
+        }
+    }
+}
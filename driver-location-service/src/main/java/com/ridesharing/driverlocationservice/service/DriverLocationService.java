@@ -1,133 +1,223 @@
 package com.ridesharing.driverlocationservice.service;
 
 import com.ridesharing.driverlocationservice.dto.*;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import com.ridesharing.driverlocationservice.repository.DriverLocationStore;
+import com.ridesharing.driverlocationservice.repository.TrajectoryStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.geo.*;
-import org.springframework.data.redis.connection.RedisGeoCommands;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DriverLocationService {
 
-    private final RedisTemplate<String, String> redisTemplate;
+    private static final int NEARBY_LIMIT = 20;
+    private static final int MAX_NEAREST_K = 100;
 
-    private static final String DRIVER_LOCATIONS_KEY = "driver:locations";
-    private static final String DRIVER_AVAILABILITY_KEY = "driver:availability:";
+    private final DriverLocationStore driverLocationStore;
+    private final LocationUpdateFilter locationUpdateFilter;
+    private final NearbyDriverCache nearbyDriverCache;
+    private final TrajectoryStore trajectoryStore;
+    private final SupplyHeatmap supplyHeatmap;
+
+    @Value("${location.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${location.nearest.initial-radius-km:0.5}")
+    private double nearestInitialRadiusKm;
+
+    @Value("${location.default-vehicle-type:SEDAN}")
+    private VehicleType defaultVehicleType;
+
+    @Value("${location.batch.nearby-threads:8}")
+    private int nearbyBatchThreads;
+
+    // store lookups block on Redis, so batch queries get their own bounded pool
+    private ExecutorService nearbyBatchExecutor;
+
+    @PostConstruct
+    void startNearbyBatchExecutor() {
+        nearbyBatchExecutor = Executors.newFixedThreadPool(nearbyBatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "nearby-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopNearbyBatchExecutor() {
+        nearbyBatchExecutor.shutdownNow();
+    }
 
     public void updateLocation(LocationUpdateRequest request) {
-        redisTemplate.opsForGeo().add(
-                DRIVER_LOCATIONS_KEY,
-                new Point(request.getLongitude(), request.getLatitude()),
-                request.getDriverId().toString()
-        );
-
-        redisTemplate.opsForValue().set(
-                DRIVER_AVAILABILITY_KEY + request.getDriverId(),
-                request.getIsAvailable().toString()
-        );
-
-        log.info("Updated location for driver {}: lat={}, lng={}, available={}",
+        writeChunk(List.of(request));
+
+        log.debug("Received location for driver {}: lat={}, lng={}, available={}",
                 request.getDriverId(), request.getLatitude(), request.getLongitude(), request.getIsAvailable());
     }
 
-    public List<NearbyDriverResponse> findNearbyDrivers(Double latitude, Double longitude, Double radiusInKm) {
-        GeoResults<RedisGeoCommands.GeoLocation<String>> results = redisTemplate.opsForGeo().radius(
-                DRIVER_LOCATIONS_KEY,
-                new Circle(
-                        new Point(longitude, latitude),
-                        new Distance(radiusInKm, Metrics.KILOMETERS)
-                ),
-                RedisGeoCommands.GeoRadiusCommandArgs.newGeoRadiusArgs()
-                        .includeCoordinates()
-                        .includeDistance()
-                        .sortAscending()
-                        .limit(20)
-        );
-
-        List<NearbyDriverResponse> nearbyDrivers = new ArrayList<>();
-
-        if (results != null) {
-            for (GeoResult<RedisGeoCommands.GeoLocation<String>> result : results) {
-                String driverId = result.getContent().getName();
-
-                String availability = redisTemplate.opsForValue().get(DRIVER_AVAILABILITY_KEY + driverId);
-                if (!"true".equals(availability)) {
-                    continue;
-                }
-
-                Point point = result.getContent().getPoint();
-                nearbyDrivers.add(NearbyDriverResponse.builder()
-                        .driverId(Long.parseLong(driverId))
-                        .latitude(point.getY())
-                        .longitude(point.getX())
-                        .distanceInKm(Math.round(result.getDistance().getValue() * 100.0) / 100.0)
-                        .build());
+    /**
+     * Batched ingest — updates are handed to the store in chunks so each chunk costs a
+     * single round trip. Later updates for the same driver within a chunk win, and
+     * updates the {@link LocationUpdateFilter} considers redundant are not written.
+     */
+    public int updateLocations(List<LocationUpdateRequest> requests) {
+        for (int from = 0; from < requests.size(); from += batchChunkSize) {
+            writeChunk(requests.subList(from, Math.min(from + batchChunkSize, requests.size())));
+        }
+
+        log.debug("Batch received {} driver locations", requests.size());
+        return requests.size();
+    }
+
+    private void writeChunk(List<LocationUpdateRequest> chunk) {
+        Map<Long, LocationUpdateRequest> latest = new LinkedHashMap<>();
+        for (LocationUpdateRequest request : chunk) {
+            latest.put(request.getDriverId(), request);
+        }
+
+        resolveVehicleTypes(latest);
+
+        List<LocationUpdateRequest> writes = new ArrayList<>(latest.size());
+        List<LocationUpdateRequest> indexChanges = new ArrayList<>();
+        for (LocationUpdateRequest request : latest.values()) {
+            LocationUpdateFilter.Decision decision = locationUpdateFilter.accept(request);
+            if (decision == LocationUpdateFilter.Decision.DROP) {
+                continue;
+            }
+            writes.add(request);
+            if (decision == LocationUpdateFilter.Decision.WRITE_INDEX_CHANGE) {
+                indexChanges.add(request);
+            }
+        }
+        if (!writes.isEmpty()) {
+            try {
+                driverLocationStore.saveAll(writes);
+            } catch (RuntimeException ex) {
+                // the filter already counts these as written; without this, retries would be dropped as duplicates
+                writes.forEach(request -> locationUpdateFilter.forget(request.getDriverId()));
+                throw ex;
             }
+            // only once the write is visible, or a query in between would cache the old state under the new version
+            indexChanges.forEach(request -> nearbyDriverCache.invalidate(request.getLatitude(), request.getLongitude()));
+            trajectoryStore.append(writes);
         }
+    }
+
+    /** Pings without a vehicle type keep the driver's current type — one store read per chunk, only if needed. */
+    private void resolveVehicleTypes(Map<Long, LocationUpdateRequest> latest) {
+        List<Long> untyped = latest.values().stream()
+                .filter(request -> request.getVehicleType() == null)
+                .map(LocationUpdateRequest::getDriverId)
+                .toList();
+        if (untyped.isEmpty()) {
+            return;
+        }
+        Map<Long, VehicleType> known = driverLocationStore.findVehicleTypes(untyped);
+        for (Long driverId : untyped) {
+            latest.get(driverId).setVehicleType(known.getOrDefault(driverId, defaultVehicleType));
+        }
+    }
 
-        log.info("Found {} available drivers near lat={}, lng={} within {}km",
-                nearbyDrivers.size(), latitude, longitude, radiusInKm);
+    public List<NearbyDriverResponse> findNearbyDrivers(Double latitude, Double longitude, Double radiusInKm,
+                                                        VehicleType vehicleType) {
+        List<NearbyDriverResponse> nearbyDrivers = nearbyDriverCache.get(
+                latitude, longitude, radiusInKm, vehicleType, NEARBY_LIMIT,
+                (lat, lng, radius, limit) -> driverLocationStore.findNearby(lat, lng, radius, vehicleType, limit));
+
+        log.debug("Found {} available drivers (type={}) near lat={}, lng={} within {}km",
+                nearbyDrivers.size(), vehicleType, latitude, longitude, radiusInKm);
         return nearbyDrivers;
     }
 
-    public DriverLocationResponse getDriverLocation(Long driverId) {
-        List<Point> positions = redisTemplate.opsForGeo().position(
-                DRIVER_LOCATIONS_KEY,
-                driverId.toString()
-        );
+    /**
+     * Many nearby searches in one call, e.g. one per open ride in a dispatch window. Each
+     * query goes through the same per-cell cache as /nearby, so queries clustered in
+     * the same area share a store lookup. Queries run on a dedicated pool of
+     * {@code location.batch.nearby-threads}, shared by all batch calls, which bounds the
+     * Redis connections a burst of batches can hold.
+     */
+    public List<BatchNearbyResponse> findNearbyDriversBatch(List<NearbyQuery> queries) {
+        List<CompletableFuture<BatchNearbyResponse>> results = new ArrayList<>(queries.size());
+        for (NearbyQuery query : queries) {
+            results.add(CompletableFuture.supplyAsync(() -> BatchNearbyResponse.builder()
+                    .queryId(query.getQueryId())
+                    .drivers(findNearbyDrivers(query.getLatitude(), query.getLongitude(),
+                            query.getRadiusInKm(), query.getVehicleType()))
+                    .build(), nearbyBatchExecutor));
+        }
+        try {
+            return results.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException ex) {
+            results.forEach(result -> result.cancel(false));
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
 
-        if (positions == null || positions.isEmpty() || positions.get(0) == null) {
-            throw new RuntimeException("Location not found for driver: " + driverId);
+    /**
+     * Expanding-ring k-nearest — starts with a small radius and doubles it until k available
+     * drivers are found or maxRadiusInKm is reached, so dense areas stay cheap and sparse
+     * areas still get an answer. Results are nearest first.
+     */
+    public List<NearbyDriverResponse> findNearestDrivers(Double latitude, Double longitude, Integer k,
+                                                         Double maxRadiusInKm, VehicleType vehicleType) {
+        if (k < 1 || k > MAX_NEAREST_K) {
+            throw new RuntimeException("k must be between 1 and " + MAX_NEAREST_K + ": " + k);
+        }
+        if (maxRadiusInKm <= 0) {
+            throw new RuntimeException("Maximum radius must be positive: " + maxRadiusInKm);
         }
 
-        Point point = positions.get(0);
-        String availability = redisTemplate.opsForValue().get(DRIVER_AVAILABILITY_KEY + driverId);
+        double radiusInKm = Math.min(nearestInitialRadiusKm, maxRadiusInKm);
+        List<NearbyDriverResponse> nearestDrivers =
+                driverLocationStore.findNearby(latitude, longitude, radiusInKm, vehicleType, k);
+        while (nearestDrivers.size() < k && radiusInKm < maxRadiusInKm) {
+            radiusInKm = Math.min(radiusInKm * 2, maxRadiusInKm);
+            nearestDrivers = driverLocationStore.findNearby(latitude, longitude, radiusInKm, vehicleType, k);
+        }
 
-        return DriverLocationResponse.builder()
-                .driverId(driverId)
-                .latitude(point.getY())
-                .longitude(point.getX())
-                .isAvailable("true".equals(availability))
-                .build();
+        log.debug("Found {}/{} nearest drivers near lat={}, lng={} within {}km",
+                nearestDrivers.size(), k, latitude, longitude, radiusInKm);
+        return nearestDrivers;
     }
 
-    public void removeDriver(Long driverId) {
-        redisTemplate.opsForGeo().remove(DRIVER_LOCATIONS_KEY, driverId.toString());
-        redisTemplate.delete(DRIVER_AVAILABILITY_KEY + driverId);
-        log.info("Removed driver {} from location tracking", driverId);
+    public DriverLocationResponse getDriverLocation(Long driverId) {
+        return driverLocationStore.findByDriverId(driverId)
+                .orElseThrow(() -> new RuntimeException("Location not found for driver: " + driverId));
     }
 
-    public void simulateDrivers() {
-        double[][] delhiLocations = {
-                {28.6139, 77.2090},
-                {28.6280, 77.2190},
-                {28.6350, 77.2250},
-                {28.6450, 77.2100},
-                {28.5950, 77.2300},
-                {28.6100, 77.2400},
-                {28.6200, 77.2000},
-                {28.6500, 77.2350},
-                {28.5800, 77.2150},
-                {28.6050, 77.1950}
-        };
-
-        for (int i = 0; i < delhiLocations.length; i++) {
-            long driverId = 100 + i;
-            updateLocation(LocationUpdateRequest.builder()
-                    .driverId(driverId)
-                    .latitude(delhiLocations[i][0])
-                    .longitude(delhiLocations[i][1])
-                    .isAvailable(true)
-                    .build());
+    public List<TrailPointResponse> getDriverTrail(Long driverId, LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Trail start must not be after its end");
         }
+        return trajectoryStore.findTrail(driverId, from, to);
+    }
+
+    public HeatmapResponse getSupplyHeatmap() {
+        return supplyHeatmap.snapshot();
+    }
 
-        log.info("Simulated {} drivers in Delhi NCR area", delhiLocations.length);
+    public void removeDriver(Long driverId) {
+        Optional<DriverLocationResponse> location = driverLocationStore.findByDriverId(driverId);
+        driverLocationStore.remove(driverId);
+        location.ifPresent(last -> nearbyDriverCache.invalidate(last.getLatitude(), last.getLongitude()));
+        locationUpdateFilter.forget(driverId);
+        log.info("Removed driver {} from location tracking", driverId);
     }
 }
@@ -0,0 +1,377 @@
+package com.ridesharing.driverlocationservice.service;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.dto.SimulationJobResponse;
+import com.ridesharing.driverlocationservice.dto.SimulationReport;
+import com.ridesharing.driverlocationservice.dto.SimulationRequest;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import com.ridesharing.driverlocationservice.repository.DriverLocationStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Load generator — spawns a fleet of virtual drivers doing a random walk around a centre
+ * point, pinging at a fixed interval with random availability churn, while query threads
+ * hammer findNearbyDrivers. Both sides go through DriverLocationService, so filter, cache
+ * and the configured store are all exercised; run with {@code location.store=memory}
+ * (the {@code simulation} profile) to use the in-JVM engine as a local Redis stand-in.
+ *
+ * Each writer thread owns a contiguous slice of the fleet and, every tick, moves and
+ * sends the slice members whose ping is due.
+ *
+ * Only registered under the {@code simulation} profile. Runs are started as background
+ * jobs, one at a time, and polled by id; the last few finished jobs are kept for lookup.
+ */
+@Component
+@Profile("simulation")
+@Slf4j
+public class FleetSimulator {
+
+    private static final long TICK_MS = 100;
+    private static final int RETAINED_JOBS = 20;
+    private static final double KM_PER_DEGREE_LATITUDE = 110.574;
+    private static final double KM_PER_DEGREE_LONGITUDE = 111.320;
+
+    private final DriverLocationService driverLocationService;
+    private final DriverLocationStore driverLocationStore;
+    private final int batchSize;
+
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fleet-simulator-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // guarded by itself; insertion order lets the oldest finished jobs be dropped first
+    private final Map<String, SimulationJobResponse> jobs = new LinkedHashMap<>();
+    private String runningJobId;
+
+    public FleetSimulator(DriverLocationService driverLocationService,
+                          DriverLocationStore driverLocationStore,
+                          @Value("${location.batch.chunk-size:500}") int batchSize) {
+        this.driverLocationService = driverLocationService;
+        this.driverLocationStore = driverLocationStore;
+        this.batchSize = batchSize;
+    }
+
+    public SimulationJobResponse start(SimulationRequest request) {
+        SimulationJobResponse job;
+        synchronized (jobs) {
+            if (runningJobId != null) {
+                throw new RuntimeException("A simulation is already running: " + runningJobId);
+            }
+            job = SimulationJobResponse.builder()
+                    .jobId(UUID.randomUUID().toString())
+                    .status("RUNNING")
+                    .drivers(request.getDrivers())
+                    .durationSeconds(request.getDurationSeconds())
+                    .startedAt(LocalDateTime.now())
+                    .build();
+            runningJobId = job.getJobId();
+            jobs.put(job.getJobId(), job);
+            while (jobs.size() > RETAINED_JOBS) {
+                jobs.remove(jobs.keySet().iterator().next());
+            }
+        }
+
+        String jobId = job.getJobId();
+        jobRunner.execute(() -> {
+            SimulationJobResponse.SimulationJobResponseBuilder finished = job.toBuilder();
+            try {
+                finished.report(run(request)).status("COMPLETED");
+            } catch (RuntimeException ex) {
+                log.error("Simulation {} failed", jobId, ex);
+                finished.error(ex.getMessage()).status("FAILED");
+            }
+            synchronized (jobs) {
+                jobs.put(jobId, finished.finishedAt(LocalDateTime.now()).build());
+                runningJobId = null;
+            }
+        });
+        return job;
+    }
+
+    public SimulationJobResponse getJob(String jobId) {
+        synchronized (jobs) {
+            SimulationJobResponse job = jobs.get(jobId);
+            if (job == null) {
+                throw new RuntimeException("Simulation job not found: " + jobId);
+            }
+            return job;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobRunner.shutdownNow();
+    }
+
+    SimulationReport run(SimulationRequest request) {
+        Fleet fleet = new Fleet(request);
+        long deadline = System.nanoTime() + request.getDurationSeconds() * 1_000_000_000L;
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        int threads = request.getWriterThreads() + request.getQueryThreads();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "fleet-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        log.info("Starting simulation of {} drivers for {}s", request.getDrivers(), request.getDurationSeconds());
+        long started = System.nanoTime();
+        try {
+            List<Future<LatencySamples>> writers = new ArrayList<>();
+            int sliceSize = (request.getDrivers() + request.getWriterThreads() - 1) / request.getWriterThreads();
+            for (int w = 0; w < request.getWriterThreads(); w++) {
+                int from = w * sliceSize;
+                int to = Math.min(from + sliceSize, request.getDrivers());
+                long seed = w;
+                writers.add(executor.submit(() -> drive(fleet, from, to, deadline, new SplittableRandom(seed))));
+            }
+
+            List<Future<LatencySamples>> readers = new ArrayList<>();
+            for (int q = 0; q < request.getQueryThreads(); q++) {
+                long seed = 1_000 + q;
+                readers.add(executor.submit(() -> query(request, running, new SplittableRandom(seed))));
+            }
+
+            LatencySamples updates = new LatencySamples();
+            for (Future<LatencySamples> writer : writers) {
+                updates.addAll(writer.get());
+            }
+            running.set(false);
+            LatencySamples queries = new LatencySamples();
+            for (Future<LatencySamples> reader : readers) {
+                queries.addAll(reader.get());
+            }
+
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+            SimulationReport report = SimulationReport.builder()
+                    .store(AopUtils.getTargetClass(driverLocationStore).getSimpleName())
+                    .drivers(request.getDrivers())
+                    .elapsedSeconds(round(elapsedSeconds))
+                    .pingsSent(fleet.pingsSent())
+                    .pingsPerSecond(round(fleet.pingsSent() / elapsedSeconds))
+                    .updateBatches((long) updates.size())
+                    .updateBatchP50Ms(updates.percentileMs(50))
+                    .updateBatchP95Ms(updates.percentileMs(95))
+                    .updateBatchP99Ms(updates.percentileMs(99))
+                    .queries((long) queries.size())
+                    .queriesPerSecond(round(queries.size() / elapsedSeconds))
+                    .queryP50Ms(queries.percentileMs(50))
+                    .queryP95Ms(queries.percentileMs(95))
+                    .queryP99Ms(queries.percentileMs(99))
+                    .build();
+            log.info("Simulation finished: {}", report);
+            return report;
+        } catch (Exception ex) {
+            throw new RuntimeException("Simulation failed: " + ex.getMessage(), ex);
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    private LatencySamples drive(Fleet fleet, int from, int to, long deadline, SplittableRandom random) {
+        LatencySamples samples = new LatencySamples();
+        int sliceSize = to - from;
+        if (sliceSize <= 0) {
+            return samples;
+        }
+        // how many slice members fall due per tick so each pings once per interval
+        double duePerTick = (double) sliceSize * TICK_MS / fleet.request.getPingIntervalMs();
+        double carry = 0;
+        int cursor = from;
+        List<LocationUpdateRequest> batch = new ArrayList<>(batchSize);
+
+        while (System.nanoTime() < deadline) {
+            long tickStart = System.nanoTime();
+            carry += duePerTick;
+            int due = (int) carry;
+            carry -= due;
+
+            for (int i = 0; i < due; i++) {
+                batch.add(fleet.step(cursor, random));
+                cursor = cursor + 1 < to ? cursor + 1 : from;
+                if (batch.size() == batchSize) {
+                    send(batch, samples);
+                }
+            }
+            if (!batch.isEmpty()) {
+                send(batch, samples);
+            }
+
+            long sleepMs = TICK_MS - (System.nanoTime() - tickStart) / 1_000_000;
+            if (sleepMs > 0) {
+                try {
+                    Thread.sleep(sleepMs);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        fleet.addPings(samples.pings);
+        return samples;
+    }
+
+    private void send(List<LocationUpdateRequest> batch, LatencySamples samples) {
+        long start = System.nanoTime();
+        driverLocationService.updateLocations(batch);
+        samples.add(System.nanoTime() - start);
+        samples.pings += batch.size();
+        batch.clear();
+    }
+
+    private LatencySamples query(SimulationRequest request, AtomicBoolean running, SplittableRandom random) {
+        LatencySamples samples = new LatencySamples();
+        VehicleType[] vehicleTypes = VehicleType.values();
+        while (running.get() && !Thread.currentThread().isInterrupted()) {
+            double[] point = randomPoint(request, random);
+            // one query in six is untyped, the rest ask for a specific vehicle type
+            int typeIndex = random.nextInt(vehicleTypes.length + 1);
+            VehicleType vehicleType = typeIndex < vehicleTypes.length ? vehicleTypes[typeIndex] : null;
+
+            long start = System.nanoTime();
+            driverLocationService.findNearbyDrivers(point[0], point[1], request.getSearchRadiusInKm(), vehicleType);
+            samples.add(System.nanoTime() - start);
+        }
+        return samples;
+    }
+
+    private static double[] randomPoint(SimulationRequest request, SplittableRandom random) {
+        double distanceKm = request.getSpreadKm() * Math.sqrt(random.nextDouble());
+        double bearing = random.nextDouble() * 2 * Math.PI;
+        double latitude = request.getCenterLatitude() + distanceKm * Math.cos(bearing) / KM_PER_DEGREE_LATITUDE;
+        double longitude = request.getCenterLongitude() + distanceKm * Math.sin(bearing)
+                / (KM_PER_DEGREE_LONGITUDE * Math.cos(Math.toRadians(request.getCenterLatitude())));
+        return new double[]{latitude, longitude};
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * Fleet state in primitive arrays; each index is only ever touched by the writer
+     * thread that owns its slice.
+     */
+    private static final class Fleet {
+
+        private final SimulationRequest request;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double[] headings;
+        private final boolean[] available;
+        private final double stepKm;
+        private long pingsSent;
+
+        Fleet(SimulationRequest request) {
+            this.request = request;
+            int size = request.getDrivers();
+            this.latitudes = new double[size];
+            this.longitudes = new double[size];
+            this.headings = new double[size];
+            this.available = new boolean[size];
+            this.stepKm = request.getSpeedKmh() * request.getPingIntervalMs() / 3_600_000.0;
+
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < size; i++) {
+                double[] point = randomPoint(request, random);
+                latitudes[i] = point[0];
+                longitudes[i] = point[1];
+                headings[i] = random.nextDouble() * 2 * Math.PI;
+                available[i] = random.nextDouble() < 0.8;
+            }
+        }
+
+        LocationUpdateRequest step(int i, SplittableRandom random) {
+            headings[i] += (random.nextDouble() - 0.5) * Math.PI / 4;
+            double latitude = latitudes[i] + stepKm * Math.cos(headings[i]) / KM_PER_DEGREE_LATITUDE;
+            double longitude = longitudes[i] + stepKm * Math.sin(headings[i])
+                    / (KM_PER_DEGREE_LONGITUDE * Math.cos(Math.toRadians(latitudes[i])));
+
+            double offLatKm = (latitude - request.getCenterLatitude()) * KM_PER_DEGREE_LATITUDE;
+            double offLngKm = (longitude - request.getCenterLongitude())
+                    * KM_PER_DEGREE_LONGITUDE * Math.cos(Math.toRadians(request.getCenterLatitude()));
+            if (Math.hypot(offLatKm, offLngKm) > request.getSpreadKm()) {
+                // bounce back towards the centre instead of leaving the simulated area
+                headings[i] += Math.PI;
+            } else {
+                latitudes[i] = latitude;
+                longitudes[i] = longitude;
+            }
+            if (random.nextDouble() < request.getAvailabilityChurn()) {
+                available[i] = !available[i];
+            }
+
+            VehicleType[] vehicleTypes = VehicleType.values();
+            return LocationUpdateRequest.builder()
+                    .driverId(request.getFirstDriverId() + i)
+                    .latitude(latitudes[i])
+                    .longitude(longitudes[i])
+                    .vehicleType(vehicleTypes[i % vehicleTypes.length])
+                    .isAvailable(available[i])
+                    .build();
+        }
+
+        synchronized void addPings(long pings) {
+            pingsSent += pings;
+        }
+
+        synchronized long pingsSent() {
+            return pingsSent;
+        }
+    }
+
+    private static final class LatencySamples {
+
+        private long[] nanos = new long[1024];
+        private int size;
+        private long pings;
+
+        void add(long latencyNanos) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latencyNanos;
+        }
+
+        void addAll(LatencySamples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i]);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        double percentileMs(int percentile) {
+            if (size == 0) {
+                return 0.0;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return round(sorted[Math.max(index, 0)] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ridesharing.driverlocationservice.service;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded hand-off between streaming producers and the store. Producers block for at
+ * most {@code location.ingest.offer-timeout-ms} when the queue is full (backpressure);
+ * worker threads drain whatever has accumulated, up to one batch chunk at a time, into
+ * {@link DriverLocationService#updateLocations}.
+ *
+ * Each worker owns its own queue and updates are routed by driver id, so all of a driver's
+ * updates are written by one thread in arrival order — an older position or availability
+ * can never overwrite a newer one, and the update filter sees them in the same order.
+ */
+@Component
+@Slf4j
+public class LocationIngestPipeline {
+
+    private final DriverLocationService driverLocationService;
+    private final List<BlockingQueue<LocationUpdateRequest>> queues;
+    private final int workers;
+    private final int drainSize;
+    private final long offerTimeoutMs;
+    private final ExecutorService executor;
+
+    private volatile boolean running;
+
+    public LocationIngestPipeline(DriverLocationService driverLocationService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${location.ingest.queue-capacity:100000}") int queueCapacity,
+                                  @Value("${location.ingest.workers:2}") int workers,
+                                  @Value("${location.batch.chunk-size:500}") int drainSize,
+                                  @Value("${location.ingest.offer-timeout-ms:200}") long offerTimeoutMs) {
+        this.driverLocationService = driverLocationService;
+        this.queues = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            queues.add(new ArrayBlockingQueue<>(Math.max(queueCapacity / workers, 1)));
+        }
+        this.workers = workers;
+        this.drainSize = drainSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "location-ingest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("driver.location.ingest.queue.size", queues,
+                        q -> q.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Location updates waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (BlockingQueue<LocationUpdateRequest> queue : queues) {
+            executor.submit(() -> drainLoop(queue));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /** Returns false if the queue stayed full past the offer timeout; updates queued before that are kept. */
+    public boolean submit(List<LocationUpdateRequest> updates) {
+        try {
+            for (LocationUpdateRequest update : updates) {
+                BlockingQueue<LocationUpdateRequest> queue = queues.get(Math.floorMod(update.getDriverId(), workers));
+                if (!queue.offer(update, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drainLoop(BlockingQueue<LocationUpdateRequest> queue) {
+        List<LocationUpdateRequest> batch = new ArrayList<>(drainSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LocationUpdateRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, drainSize - 1);
+                driverLocationService.updateLocations(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Failed to write {} streamed location updates", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ridesharing.driverlocationservice.service;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.geo.GeoGrid;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingest filter — remembers the last position written for each driver and drops pings
+ * that moved less than {@code location.filter.min-distance-meters} or arrived within
+ * {@code location.filter.min-interval-ms} of the last write.
+ *
+ * Availability and vehicle-type changes always pass, and a driver is re-written at least every
+ * {@code location.filter.refresh-interval} so a parked driver keeps its heartbeat.
+ */
+@Component
+public class LocationUpdateFilter {
+
+    private final Map<Long, LastWrite> lastWrites = new ConcurrentHashMap<>();
+    private final double minDistanceKm;
+    private final long minIntervalMs;
+    private final long refreshIntervalMs;
+    private final Counter accepted;
+    private final Counter dropped;
+
+    public LocationUpdateFilter(MeterRegistry meterRegistry,
+                                @Value("${location.filter.min-distance-meters:20}") double minDistanceMeters,
+                                @Value("${location.filter.min-interval-ms:1000}") long minIntervalMs,
+                                @Value("${location.filter.refresh-interval:20s}") Duration refreshInterval) {
+        this.minDistanceKm = minDistanceMeters / 1000.0;
+        this.minIntervalMs = minIntervalMs;
+        this.refreshIntervalMs = refreshInterval.toMillis();
+        this.accepted = Counter.builder("driver.location.updates")
+                .tag("outcome", "written")
+                .description("Location updates that passed the ingest filter")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("driver.location.updates")
+                .tag("outcome", "dropped")
+                .description("Location updates dropped by the ingest filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decides whether the update is written; records it as the driver's last write if so.
+     * Callers must {@link #forget} the driver if the write then fails.
+     */
+    public Decision accept(LocationUpdateRequest request) {
+        long now = System.currentTimeMillis();
+        boolean available = Boolean.TRUE.equals(request.getIsAvailable());
+        Decision[] decision = new Decision[1];
+
+        lastWrites.compute(request.getDriverId(), (driverId, last) -> {
+            if (last == null || last.available() != available || last.vehicleType() != request.getVehicleType()) {
+                decision[0] = Decision.WRITE_INDEX_CHANGE;
+            } else if (now - last.writtenAtMillis() >= refreshIntervalMs
+                    || (now - last.writtenAtMillis() >= minIntervalMs
+                        && GeoGrid.distanceKm(last.latitude(), last.longitude(),
+                                request.getLatitude(), request.getLongitude()) >= minDistanceKm)) {
+                decision[0] = Decision.WRITE;
+            } else {
+                decision[0] = Decision.DROP;
+            }
+            return decision[0] != Decision.DROP
+                    ? new LastWrite(request.getLatitude(), request.getLongitude(), request.getVehicleType(), available, now)
+                    : last;
+        });
+
+        (decision[0] != Decision.DROP ? accepted : dropped).increment();
+        return decision[0];
+    }
+
+    public void forget(Long driverId) {
+        lastWrites.remove(driverId);
+    }
+
+    /** Drops state for drivers not written since the cutoff, e.g. after the sweeper evicted them. */
+    public void prune(long writtenBeforeEpochMillis) {
+        lastWrites.values().removeIf(last -> last.writtenAtMillis() < writtenBeforeEpochMillis);
+    }
+
+    public enum Decision {
+        /** Redundant ping, not written. */
+        DROP,
+        /** Position or heartbeat refresh of a driver already indexed with this availability and type. */
+        WRITE,
+        /** New driver, or its availability or vehicle type changed — it enters or leaves an index. */
+        WRITE_INDEX_CHANGE
+    }
+
+    private record LastWrite(double latitude, double longitude, VehicleType vehicleType, boolean available,
+                             long writtenAtMillis) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.ridesharing.driverlocationservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ridesharing.driverlocationservice.dto.NearbyDriverResponse;
+import com.ridesharing.driverlocationservice.geo.GeoGrid;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-TTL cache for nearby-driver queries keyed by (snapped geocell, radius bucket, vehicle type),
+ * so riders polling from the same neighbourhood share one store query.
+ *
+ * An entry holds every available driver within the bucket radius plus half the cell diagonal
+ * of the cell centre — a circle containing the search circle of any point in the cell — so
+ * re-filtering and re-measuring an entry against the caller's own position gives exactly the
+ * store's answer for that caller. Entries are loaded by radius, not by count; an entry that
+ * hits {@code max-entry-drivers} may be missing drivers, so callers in that cell are sent to
+ * the store directly. Concurrent misses for the same key share one load.
+ *
+ * Drivers entering or leaving an index (joining, availability or vehicle type change) bump a
+ * version counter on their cell, and the summed versions of the covered cells are part of the
+ * key, so those changes are visible at once. Plain position moves are not invalidated — they
+ * show up within the TTL, which also bounds staleness for writes seen by other replicas.
+ * A cell's version is dropped once it has gone unread and unbumped for twice the TTL; every
+ * entry that summed it has expired by then, so restarting it at zero cannot revive a stamp.
+ */
+@Component
+public class NearbyDriverCache {
+
+    private static final double RADIUS_BUCKET_KM = 0.5;
+
+    private final GeoGrid grid;
+    private final boolean enabled;
+    private final int maxEntryDrivers;
+    private final Cache<Key, Entry> cache;
+    private final Cache<Long, AtomicLong> cellVersions;
+
+    public NearbyDriverCache(MeterRegistry meterRegistry,
+                             @Value("${location.nearby-cache.enabled:true}") boolean enabled,
+                             @Value("${location.nearby-cache.cell-size-degrees:0.005}") double cellSizeDegrees,
+                             @Value("${location.nearby-cache.ttl-ms:500}") long ttlMs,
+                             @Value("${location.nearby-cache.max-cached-drivers:500000}") long maxCachedDrivers,
+                             @Value("${location.nearby-cache.max-entry-drivers:5000}") int maxEntryDrivers) {
+        this.grid = new GeoGrid(cellSizeDegrees);
+        this.enabled = enabled;
+        this.maxEntryDrivers = maxEntryDrivers;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                // bounded by the drivers held, since entries range from a handful to max-entry-drivers
+                .maximumWeight(maxCachedDrivers)
+                .weigher((Key key, Entry entry) -> entry.drivers().size() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "nearbyDrivers");
+        this.cellVersions = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(ttlMs).multipliedBy(2))
+                .build();
+    }
+
+    public List<NearbyDriverResponse> get(double latitude, double longitude, double radiusInKm,
+                                          VehicleType vehicleType, int limit, NearbyLoader loader) {
+        if (!enabled) {
+            return loader.load(latitude, longitude, radiusInKm, limit);
+        }
+
+        Lookup lookup = lookup(latitude, longitude, radiusInKm, vehicleType);
+        Entry entry = cache.get(lookup.key(), k -> toEntry(
+                loader.load(lookup.centerLatitude(), lookup.centerLongitude(), lookup.coverRadiusKm(), maxEntryDrivers)));
+        if (!entry.complete()) {
+            return loader.load(latitude, longitude, radiusInKm, limit);
+        }
+        return select(entry, latitude, longitude, radiusInKm, limit);
+    }
+
+    private Lookup lookup(double latitude, double longitude, double radiusInKm, VehicleType vehicleType) {
+        long cell = grid.cellOf(latitude, longitude);
+        int radiusBucket = (int) Math.ceil(radiusInKm / RADIUS_BUCKET_KM);
+        double centerLatitude = grid.centerLatitude(cell);
+        double centerLongitude = grid.centerLongitude(cell);
+        double coverRadiusKm = radiusBucket * RADIUS_BUCKET_KM + halfDiagonalKm(centerLatitude);
+
+        Key key = new Key(cell, radiusBucket, vehicleType, stamp(centerLatitude, centerLongitude, coverRadiusKm));
+        return new Lookup(key, centerLatitude, centerLongitude, coverRadiusKm);
+    }
+
+    private Entry toEntry(List<NearbyDriverResponse> drivers) {
+        return new Entry(drivers, drivers.size() < maxEntryDrivers);
+    }
+
+    private static List<NearbyDriverResponse> select(Entry entry, double latitude, double longitude,
+                                                     double radiusInKm, int limit) {
+        // ordered by exact distance, like the store, before rounding for the response
+        List<Candidate> candidates = new ArrayList<>();
+        for (NearbyDriverResponse driver : entry.drivers()) {
+            double distance = GeoGrid.distanceKm(latitude, longitude, driver.getLatitude(), driver.getLongitude());
+            if (distance <= radiusInKm) {
+                candidates.add(new Candidate(driver, distance));
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::distanceInKm));
+
+        List<NearbyDriverResponse> nearbyDrivers = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (Candidate candidate : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            NearbyDriverResponse driver = candidate.driver();
+            nearbyDrivers.add(NearbyDriverResponse.builder()
+                    .driverId(driver.getDriverId())
+                    .latitude(driver.getLatitude())
+                    .longitude(driver.getLongitude())
+                    .vehicleType(driver.getVehicleType())
+                    .distanceInKm(Math.round(candidate.distanceInKm() * 100.0) / 100.0)
+                    .build());
+        }
+        return nearbyDrivers;
+    }
+
+    /** Invalidates every cached query whose area covers this position; call when a driver enters or leaves an index. */
+    public void invalidate(double latitude, double longitude) {
+        if (enabled) {
+            cellVersions.get(grid.cellOf(latitude, longitude), c -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private long stamp(double latitude, double longitude, double radiusInKm) {
+        long stamp = 0;
+        for (Long cell : grid.cellsWithin(latitude, longitude, radiusInKm)) {
+            AtomicLong version = cellVersions.getIfPresent(cell);
+            if (version != null) {
+                stamp += version.get();
+            }
+        }
+        return stamp;
+    }
+
+    /** Cells currently holding a version counter. */
+    long versionedCells() {
+        cellVersions.cleanUp();
+        return cellVersions.estimatedSize();
+    }
+
+    private double halfDiagonalKm(double latitude) {
+        double heightKm = GeoGrid.distanceKm(latitude, 0, latitude + grid.getCellSizeDegrees(), 0);
+        double widthKm = GeoGrid.distanceKm(latitude, 0, latitude, grid.getCellSizeDegrees());
+        return Math.sqrt(heightKm * heightKm + widthKm * widthKm) / 2;
+    }
+
+    @FunctionalInterface
+    public interface NearbyLoader {
+        List<NearbyDriverResponse> load(double latitude, double longitude, double radiusInKm, int limit);
+    }
+
+    private record Lookup(Key key, double centerLatitude, double centerLongitude, double coverRadiusKm) {
+    }
+
+    private record Key(long cell, int radiusBucket, VehicleType vehicleType, long stamp) {
+    }
+
+    private record Entry(List<NearbyDriverResponse> drivers, boolean complete) {
+    }
+
+    private record Candidate(NearbyDriverResponse driver, double distanceInKm) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.ridesharing.driverlocationservice.service;
+
+import com.ridesharing.driverlocationservice.repository.DriverLocationStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heartbeat expiry — a driver whose app crashed never calls removeDriver, so anything
+ * silent for longer than {@code location.heartbeat.timeout} is evicted in bulk here.
+ * Exposes {@code driver.location.evictions} and {@code driver.location.index.size}.
+ */
+@Component
+@Slf4j
+public class StaleDriverSweeper {
+
+    private final DriverLocationStore driverLocationStore;
+    private final LocationUpdateFilter locationUpdateFilter;
+    private final Duration heartbeatTimeout;
+    private final Counter evictions;
+    private final AtomicLong indexSize = new AtomicLong();
+
+    public StaleDriverSweeper(DriverLocationStore driverLocationStore,
+                              LocationUpdateFilter locationUpdateFilter,
+                              MeterRegistry meterRegistry,
+                              @Value("${location.heartbeat.timeout:60s}") Duration heartbeatTimeout) {
+        this.driverLocationStore = driverLocationStore;
+        this.locationUpdateFilter = locationUpdateFilter;
+        this.heartbeatTimeout = heartbeatTimeout;
+        this.evictions = Counter.builder("driver.location.evictions")
+                .description("Drivers evicted from the location index after missing heartbeats")
+                .register(meterRegistry);
+        Gauge.builder("driver.location.index.size", indexSize, AtomicLong::get)
+                .description("Drivers currently held in the location index")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${location.heartbeat.sweep-interval-ms:10000}")
+    public void sweep() {
+        long cutoff = System.currentTimeMillis() - heartbeatTimeout.toMillis();
+        int evicted = driverLocationStore.evictStale(cutoff);
+        locationUpdateFilter.prune(cutoff);
+        evictions.increment(evicted);
+        indexSize.set(driverLocationStore.size());
+
+        if (evicted > 0) {
+            log.info("Evicted {} drivers silent for more than {}s, {} remain tracked",
+                    evicted, heartbeatTimeout.toSeconds(), indexSize.get());
+        }
+    }
+}
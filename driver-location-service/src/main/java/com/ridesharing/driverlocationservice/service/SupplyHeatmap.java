@@ -0,0 +1,92 @@
+package com.ridesharing.driverlocationservice.service;
+
+import com.ridesharing.driverlocationservice.dto.HeatmapCellResponse;
+import com.ridesharing.driverlocationservice.dto.HeatmapResponse;
+import com.ridesharing.driverlocationservice.geo.GeoGrid;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import com.ridesharing.driverlocationservice.repository.DriverLocationStore;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Available drivers per (heatmap cell, vehicle type).
+ *
+ * Counts are rebuilt from the shared location store every
+ * {@code location.heatmap.refresh-interval-ms} (and at startup) rather than from the updates
+ * this instance happened to write — with several replicas and sticky location streams each
+ * instance only sees part of the fleet. The snapshot is O(cells) and serves the last rebuild,
+ * so it lags the index by at most one interval; evicted and removed drivers drop out with it.
+ */
+@Component
+@Slf4j
+public class SupplyHeatmap {
+
+    private final DriverLocationStore driverLocationStore;
+    private final GeoGrid grid;
+    private volatile Snapshot current = new Snapshot(Map.of(), LocalDateTime.now());
+
+    public SupplyHeatmap(DriverLocationStore driverLocationStore,
+                         @Value("${location.heatmap.cell-size-degrees:0.02}") double cellSizeDegrees) {
+        this.driverLocationStore = driverLocationStore;
+        this.grid = new GeoGrid(cellSizeDegrees);
+    }
+
+    @PostConstruct
+    public void seed() {
+        try {
+            log.info("Supply heatmap seeded with {} available drivers", rebuild());
+        } catch (RuntimeException ex) {
+            // the store may not be reachable yet; the scheduled rebuild catches up
+            log.warn("Could not seed the supply heatmap: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${location.heatmap.refresh-interval-ms:5000}",
+            fixedDelayString = "${location.heatmap.refresh-interval-ms:5000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /** Replaces the counts with a count of the store's available drivers; returns that count. */
+    int rebuild() {
+        Map<Zone, Integer> counts = new HashMap<>();
+        int[] drivers = new int[1];
+        driverLocationStore.forEachAvailable((latitude, longitude, vehicleType) -> {
+            counts.merge(new Zone(grid.cellOf(latitude, longitude), vehicleType), 1, Integer::sum);
+            drivers[0]++;
+        });
+        current = new Snapshot(counts, LocalDateTime.now());
+        return drivers[0];
+    }
+
+    public HeatmapResponse snapshot() {
+        Snapshot snapshot = current;
+        List<HeatmapCellResponse> cells = new ArrayList<>(snapshot.counts().size());
+        snapshot.counts().forEach((zone, count) -> cells.add(HeatmapCellResponse.builder()
+                .row(GeoGrid.rowOf(zone.cell()))
+                .col(GeoGrid.colOf(zone.cell()))
+                .vehicleType(zone.vehicleType())
+                .count(count)
+                .build()));
+        return HeatmapResponse.builder()
+                .cellSizeDegrees(grid.getCellSizeDegrees())
+                .generatedAt(snapshot.builtAt())
+                .cells(cells)
+                .build();
+    }
+
+    private record Zone(long cell, VehicleType vehicleType) {
+    }
+
+    private record Snapshot(Map<Zone, Integer> counts, LocalDateTime builtAt) {
+    }
+}
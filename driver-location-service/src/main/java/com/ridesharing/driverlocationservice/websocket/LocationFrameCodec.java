@@ -0,0 +1,78 @@
+package com.ridesharing.driverlocationservice.websocket;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary location frame — a frame carries one or more fixed-size,
+ * big-endian records:
+ *
+ * <pre>
+ *   int64  driverId
+ *   int32  latitude  × 1e6
+ *   int32  longitude × 1e6
+ *   uint8  flags     (bit 0 = available, bits 1-3 = vehicle type ordinal + 1, 0 = keep current type)
+ * </pre>
+ *
+ * 17 bytes per ping versus ~100 bytes of JSON plus HTTP headers.
+ */
+public final class LocationFrameCodec {
+
+    public static final int RECORD_SIZE = 17;
+
+    private static final double COORDINATE_SCALE = 1_000_000.0;
+    private static final int FLAG_AVAILABLE = 0x01;
+    private static final int VEHICLE_TYPE_SHIFT = 1;
+    private static final int VEHICLE_TYPE_MASK = 0x07;
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private LocationFrameCodec() {
+    }
+
+    public static List<LocationUpdateRequest> decode(ByteBuffer frame) {
+        if (frame.remaining() == 0 || frame.remaining() % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Frame length must be a non-zero multiple of "
+                    + RECORD_SIZE + " bytes, got " + frame.remaining());
+        }
+
+        List<LocationUpdateRequest> updates = new ArrayList<>(frame.remaining() / RECORD_SIZE);
+        while (frame.hasRemaining()) {
+            long driverId = frame.getLong();
+            double latitude = frame.getInt() / COORDINATE_SCALE;
+            double longitude = frame.getInt() / COORDINATE_SCALE;
+            int flags = frame.get() & 0xFF;
+
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                throw new IllegalArgumentException("Coordinates out of range for driver " + driverId);
+            }
+            int vehicleTypeCode = (flags >> VEHICLE_TYPE_SHIFT) & VEHICLE_TYPE_MASK;
+            if (vehicleTypeCode > VEHICLE_TYPES.length) {
+                throw new IllegalArgumentException("Unknown vehicle type code " + vehicleTypeCode + " for driver " + driverId);
+            }
+
+            updates.add(LocationUpdateRequest.builder()
+                    .driverId(driverId)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .vehicleType(vehicleTypeCode == 0 ? null : VEHICLE_TYPES[vehicleTypeCode - 1])
+                    .isAvailable((flags & FLAG_AVAILABLE) != 0)
+                    .build());
+        }
+        return updates;
+    }
+
+    public static void encode(LocationUpdateRequest update, ByteBuffer target) {
+        target.putLong(update.getDriverId());
+        target.putInt((int) Math.round(update.getLatitude() * COORDINATE_SCALE));
+        target.putInt((int) Math.round(update.getLongitude() * COORDINATE_SCALE));
+        int flags = update.getVehicleType() != null ? (update.getVehicleType().ordinal() + 1) << VEHICLE_TYPE_SHIFT : 0;
+        if (Boolean.TRUE.equals(update.getIsAvailable())) {
+            flags |= FLAG_AVAILABLE;
+        }
+        target.put((byte) flags);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ridesharing.driverlocationservice.websocket;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.service.LocationIngestPipeline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Persistent driver channel — each binary message is decoded by {@link LocationFrameCodec}
+ * and handed to the shared ingest pipeline. When the pipeline is saturated this handler
+ * blocks, which stops the container reading from the socket and pushes back on the
+ * client through TCP flow control; if it stays saturated the session is closed with 1013.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LocationStreamHandler extends BinaryWebSocketHandler {
+
+    private final LocationIngestPipeline ingestPipeline;
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws IOException {
+        List<LocationUpdateRequest> updates;
+        try {
+            updates = LocationFrameCodec.decode(message.getPayload());
+        } catch (IllegalArgumentException ex) {
+            log.warn("Rejected location frame on session {}: {}", session.getId(), ex.getMessage());
+            session.close(CloseStatus.BAD_DATA.withReason(ex.getMessage()));
+            return;
+        }
+
+        if (!ingestPipeline.submit(updates)) {
+            log.warn("Ingest pipeline saturated, closing session {}", session.getId());
+            session.close(CloseStatus.SERVICE_OVERLOAD);
+        }
+    }
+}
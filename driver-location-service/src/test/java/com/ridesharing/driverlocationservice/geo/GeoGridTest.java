@@ -0,0 +1,54 @@
+package com.ridesharing.driverlocationservice.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridTest {
+
+    private final GeoGrid grid = new GeoGrid(0.5);
+
+    @Test
+    void circleInsideOneCellCoversOnlyThatCell() {
+        // 5 km around the middle of the cell spanning 12.5..13.0 / 77.5..78.0
+        List<Long> cells = grid.cellsWithin(12.75, 77.75, 5);
+
+        assertEquals(List.of(grid.cellOf(12.75, 77.75)), cells);
+    }
+
+    @Test
+    void circleNearACornerCoversOnlyTheCellsItOverlaps() {
+        List<Long> cells = grid.cellsWithin(12.99, 77.99, 5);
+
+        assertEquals(Set.of(grid.cellOf(12.99, 77.99), grid.cellOf(13.01, 77.99),
+                grid.cellOf(12.99, 78.01), grid.cellOf(13.01, 78.01)), new HashSet<>(cells));
+    }
+
+    @Test
+    void everyPointInsideTheCircleFallsInACoveredCell() {
+        Random random = new Random(7);
+        for (int query = 0; query < 500; query++) {
+            double latitude = (random.nextDouble() - 0.5) * 140;
+            double longitude = (random.nextDouble() - 0.5) * 340;
+            double radiusInKm = random.nextDouble() * 80;
+            Set<Long> cells = new HashSet<>(grid.cellsWithin(latitude, longitude, radiusInKm));
+            // sample a box a little wider than the circle at the query's latitude
+            double latitudeSpan = 1.2 * radiusInKm / 110.0;
+            double longitudeSpan = 1.2 * radiusInKm / (111.0 * Math.cos(Math.toRadians(Math.abs(latitude) + latitudeSpan)));
+
+            for (int i = 0; i < 200; i++) {
+                double pointLatitude = latitude + (2 * random.nextDouble() - 1) * latitudeSpan;
+                double pointLongitude = longitude + (2 * random.nextDouble() - 1) * longitudeSpan;
+                if (GeoGrid.distanceKm(latitude, longitude, pointLatitude, pointLongitude) <= radiusInKm) {
+                    assertTrue(cells.contains(grid.cellOf(pointLatitude, pointLongitude)),
+                            "query " + query + " missed " + pointLatitude + "," + pointLongitude);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.ridesharing.driverlocationservice.repository;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.dto.NearbyDriverResponse;
+import com.ridesharing.driverlocationservice.geo.GeoGrid;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryDriverLocationStoreTest {
+
+    private static final double BASE_LATITUDE = 12.97;
+    private static final double BASE_LONGITUDE = 77.59;
+
+    private final InMemoryDriverLocationStore store = new InMemoryDriverLocationStore(0.01);
+
+    @Test
+    void findNearbyMatchesBruteForce() {
+        Random random = new Random(42);
+        Map<Long, LocationUpdateRequest> latest = new HashMap<>();
+        for (int round = 0; round < 3; round++) {
+            List<LocationUpdateRequest> batch = new ArrayList<>();
+            for (long driverId = 1; driverId <= 2000; driverId++) {
+                LocationUpdateRequest update = update(driverId,
+                        BASE_LATITUDE + (random.nextDouble() - 0.5) * 0.2,
+                        BASE_LONGITUDE + (random.nextDouble() - 0.5) * 0.2,
+                        VehicleType.values()[random.nextInt(VehicleType.values().length)],
+                        random.nextInt(4) != 0);
+                batch.add(update);
+                latest.put(driverId, update);
+            }
+            store.saveAll(batch);
+        }
+
+        for (int query = 0; query < 200; query++) {
+            double latitude = BASE_LATITUDE + (random.nextDouble() - 0.5) * 0.2;
+            double longitude = BASE_LONGITUDE + (random.nextDouble() - 0.5) * 0.2;
+            double radiusInKm = 0.5 + random.nextDouble() * 5;
+            VehicleType type = random.nextBoolean() ? null : VehicleType.values()[random.nextInt(VehicleType.values().length)];
+            int limit = 1 + random.nextInt(30);
+
+            List<Long> expected = latest.values().stream()
+                    .filter(u -> u.getIsAvailable() && (type == null || u.getVehicleType() == type))
+                    .filter(u -> distance(latitude, longitude, u) <= radiusInKm)
+                    .sorted(Comparator.comparingDouble((LocationUpdateRequest u) -> distance(latitude, longitude, u)))
+                    .limit(limit)
+                    .map(LocationUpdateRequest::getDriverId)
+                    .toList();
+            List<Long> actual = store.findNearby(latitude, longitude, radiusInKm, type, limit).stream()
+                    .map(NearbyDriverResponse::getDriverId)
+                    .toList();
+            assertEquals(expected, actual, "query " + query);
+        }
+    }
+
+    @Test
+    void unavailableOrRetypedDriverLeavesTheIndex() {
+        store.saveAll(List.of(update(1L, BASE_LATITUDE, BASE_LONGITUDE, VehicleType.SEDAN, true)));
+        assertEquals(1, store.findNearby(BASE_LATITUDE, BASE_LONGITUDE, 1, VehicleType.SEDAN, 10).size());
+
+        store.saveAll(List.of(update(1L, BASE_LATITUDE, BASE_LONGITUDE, VehicleType.SUV, true)));
+        assertTrue(store.findNearby(BASE_LATITUDE, BASE_LONGITUDE, 1, VehicleType.SEDAN, 10).isEmpty());
+        assertEquals(1, store.findNearby(BASE_LATITUDE, BASE_LONGITUDE, 1, VehicleType.SUV, 10).size());
+
+        store.saveAll(List.of(update(1L, BASE_LATITUDE, BASE_LONGITUDE, VehicleType.SUV, false)));
+        assertTrue(store.findNearby(BASE_LATITUDE, BASE_LONGITUDE, 1, null, 10).isEmpty());
+        assertFalse(store.findByDriverId(1L).orElseThrow().getIsAvailable());
+    }
+
+    @Test
+    void findVehicleTypesReturnsKnownDriversOnly() {
+        store.saveAll(List.of(
+                update(1L, BASE_LATITUDE, BASE_LONGITUDE, VehicleType.PREMIUM, true),
+                update(2L, BASE_LATITUDE, BASE_LONGITUDE, VehicleType.AUTO, false)));
+
+        assertEquals(Map.of(1L, VehicleType.PREMIUM, 2L, VehicleType.AUTO),
+                store.findVehicleTypes(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void evictStaleRemovesSilentDriversOnly() throws InterruptedException {
+        store.saveAll(List.of(update(1L, BASE_LATITUDE, BASE_LONGITUDE, VehicleType.AUTO, true)));
+        Thread.sleep(5);
+        long cutoff = System.currentTimeMillis();
+        Thread.sleep(5);
+        store.saveAll(List.of(update(2L, BASE_LATITUDE, BASE_LONGITUDE, VehicleType.AUTO, true)));
+
+        assertEquals(1, store.evictStale(cutoff));
+        assertEquals(1, store.size());
+        assertTrue(store.findByDriverId(1L).isEmpty());
+        assertEquals(List.of(2L), store.findNearby(BASE_LATITUDE, BASE_LONGITUDE, 1, null, 10).stream()
+                .map(NearbyDriverResponse::getDriverId).toList());
+    }
+
+    private static double distance(double latitude, double longitude, LocationUpdateRequest update) {
+        return GeoGrid.distanceKm(latitude, longitude, update.getLatitude(), update.getLongitude());
+    }
+
+    private static LocationUpdateRequest update(long driverId, double latitude, double longitude,
+                                                VehicleType type, boolean available) {
+        return LocationUpdateRequest.builder()
+                .driverId(driverId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .vehicleType(type)
+                .isAvailable(available)
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ridesharing.driverlocationservice.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisDriverLocationStoreTest {
+
+    @Test
+    void geohashScoresDecodeToTheirGeoaddPositions() {
+        // ZSCORE after GEOADD Sicily 13.361389 38.115556 Palermo 15.087269 37.502669 Catania
+        assertEquals(38.115556, RedisDriverLocationStore.geohashLatitude(3479099956230698L), 1e-5);
+        assertEquals(13.361389, RedisDriverLocationStore.geohashLongitude(3479099956230698L), 1e-5);
+        assertEquals(37.502669, RedisDriverLocationStore.geohashLatitude(3479447370796909L), 1e-5);
+        assertEquals(15.087269, RedisDriverLocationStore.geohashLongitude(3479447370796909L), 1e-5);
+    }
+}
@@ -0,0 +1,178 @@
+package com.ridesharing.driverlocationservice.repository;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.dto.TrailPointResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrajectoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<TrajectoryStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void stopStores() throws InterruptedException {
+        for (TrajectoryStore store : opened) {
+            store.stop();
+        }
+    }
+
+    @Test
+    void appendedPointsRoundTripThroughActiveAndReopenedSegments() throws Exception {
+        TrajectoryStore store = open(Duration.ofDays(7));
+        double[][] path = {{12.971599, 77.594566}, {12.972001, 77.593999}, {12.969876, 77.601234}};
+        for (int i = 0; i < path.length; i++) {
+            store.append(List.of(
+                    update(7L, path[i][0], path[i][1], i != 1),
+                    update(8L, path[i][1] - 65, path[i][0] + 65, true)));
+        }
+        store.stop();
+
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+        assertTrail(path, store.findTrail(7L, from, to));
+
+        // a fresh instance reads the same bytes back from the file instead of the live buffer
+        TrajectoryStore reopened = open(Duration.ofDays(7));
+        assertTrail(path, reopened.findTrail(7L, from, to));
+        assertEquals(3, reopened.findTrail(8L, from, to).size());
+        assertTrue(reopened.findTrail(9L, from, to).isEmpty());
+    }
+
+    @Test
+    void tornTrailingRecordIsIgnored() throws Exception {
+        long start = System.currentTimeMillis() - 60_000;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeRecord(bytes, 7L, 500, 12_971_599, 77_594_566, true);
+        // the next record stops inside its time delta varint
+        writeVarint(bytes, 7L + 1);
+        bytes.write(0x80);
+        Files.write(directory.resolve("trail-" + start + ".seg"), bytes.toByteArray());
+
+        TrajectoryStore store = open(Duration.ofDays(7));
+        List<TrailPointResponse> trail = store.findTrail(7L, at(start), at(start + 120_000));
+
+        assertEquals(1, trail.size());
+        assertEquals(12.971599, trail.get(0).getLatitude(), 1e-9);
+        assertEquals(at(start + 500), trail.get(0).getTimestamp());
+    }
+
+    @Test
+    void findTrailKeepsOnlyPointsInsideTheRequestedRange() throws Exception {
+        long first = System.currentTimeMillis() - 3 * 3_600_000L;
+        long second = first + 3_600_000L;
+        ByteArrayOutputStream older = new ByteArrayOutputStream();
+        writeRecord(older, 7L, 1_000, 12_000_000, 77_000_000, true);
+        writeRecord(older, 7L, 1_000, 1_000, 1_000, true);
+        Files.write(directory.resolve("trail-" + first + ".seg"), older.toByteArray());
+        ByteArrayOutputStream newer = new ByteArrayOutputStream();
+        writeRecord(newer, 7L, 1_000, 13_000_000, 78_000_000, false);
+        Files.write(directory.resolve("trail-" + second + ".seg"), newer.toByteArray());
+
+        TrajectoryStore store = open(Duration.ofDays(7));
+
+        List<TrailPointResponse> tail = store.findTrail(7L, at(first + 1_500), at(second + 1_000));
+        assertEquals(2, tail.size());
+        assertEquals(12.001, tail.get(0).getLatitude(), 1e-9);
+        assertEquals(77.001, tail.get(0).getLongitude(), 1e-9);
+        assertEquals(13.0, tail.get(1).getLatitude(), 1e-9);
+        assertFalse(tail.get(1).getIsAvailable());
+
+        assertEquals(1, store.findTrail(7L, at(first), at(first + 1_000)).size());
+        assertTrue(store.findTrail(7L, at(second + 1_001), at(second + 60_000)).isEmpty());
+    }
+
+    @Test
+    void rollingDeletesSegmentsOnlyOnceTheirSuccessorIsPastRetention() throws Exception {
+        long now = System.currentTimeMillis();
+        Path expired = directory.resolve("trail-" + (now - 3 * 3_600_000L) + ".seg");
+        Path straddling = directory.resolve("trail-" + (now - 2 * 3_600_000L) + ".seg");
+        Files.write(expired, new byte[0]);
+        Files.write(straddling, new byte[0]);
+
+        TrajectoryStore store = open(Duration.ofMinutes(90));
+        store.append(List.of(update(7L, 12.97, 77.59, true)));
+        store.stop();
+
+        assertFalse(Files.exists(expired));
+        // still holds points younger than the cutoff until the new segment started
+        assertTrue(Files.exists(straddling));
+    }
+
+    @Test
+    void relativeDirectoryIsRejected() {
+        assertThrows(IllegalStateException.class, () -> new TrajectoryStore(new SimpleMeterRegistry(), true, "trails",
+                Duration.ofHours(1), 1, Duration.ofDays(7), 1_000));
+        // a disabled store never touches the directory
+        assertDoesNotThrow(() -> new TrajectoryStore(new SimpleMeterRegistry(), false, "trails",
+                Duration.ofHours(1), 1, Duration.ofDays(7), 1_000));
+    }
+
+    private TrajectoryStore open(Duration retention) throws Exception {
+        TrajectoryStore store = new TrajectoryStore(new SimpleMeterRegistry(), true, directory.toString(),
+                Duration.ofHours(1), 1, retention, 1_000);
+        store.start();
+        opened.add(store);
+        return store;
+    }
+
+    private static void assertTrail(double[][] path, List<TrailPointResponse> trail) {
+        assertEquals(path.length, trail.size());
+        for (int i = 0; i < path.length; i++) {
+            assertEquals(path[i][0], trail.get(i).getLatitude(), 1e-9);
+            assertEquals(path[i][1], trail.get(i).getLongitude(), 1e-9);
+            assertEquals(i != 1, trail.get(i).getIsAvailable());
+        }
+    }
+
+    private static LocationUpdateRequest update(Long driverId, double latitude, double longitude, boolean available) {
+        return LocationUpdateRequest.builder()
+                .driverId(driverId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .isAvailable(available)
+                .build();
+    }
+
+    private static LocalDateTime at(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /** Deltas are relative to the driver's previous record in the segment, as the store writes them. */
+    private static void writeRecord(ByteArrayOutputStream out, long driverId, long timeDelta,
+                                    long latitudeDeltaE6, long longitudeDeltaE6, boolean available) {
+        writeVarint(out, driverId + 1);
+        writeZigZag(out, timeDelta);
+        writeZigZag(out, latitudeDeltaE6);
+        writeZigZag(out, longitudeDeltaE6);
+        out.write(available ? 1 : 0);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeZigZag(ByteArrayOutputStream out, long value) {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ridesharing.driverlocationservice.service;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationIngestPipelineTest {
+
+    @Test
+    void eachDriverIsWrittenInSubmitOrderByOneWorker() throws InterruptedException {
+        Map<Long, List<Double>> writtenLatitudes = new ConcurrentHashMap<>();
+        Map<Long, Set<Thread>> writers = new ConcurrentHashMap<>();
+        DriverLocationService recorder = new DriverLocationService(null, null, null, null, null) {
+            @Override
+            public int updateLocations(List<LocationUpdateRequest> requests) {
+                for (LocationUpdateRequest request : requests) {
+                    writtenLatitudes.computeIfAbsent(request.getDriverId(), id -> new ArrayList<>())
+                            .add(request.getLatitude());
+                    writers.computeIfAbsent(request.getDriverId(), id -> ConcurrentHashMap.newKeySet())
+                            .add(Thread.currentThread());
+                }
+                return requests.size();
+            }
+        };
+        LocationIngestPipeline pipeline = new LocationIngestPipeline(recorder, new SimpleMeterRegistry(),
+                100_000, 4, 7, 1_000);
+        pipeline.start();
+
+        for (int ping = 0; ping < 200; ping++) {
+            List<LocationUpdateRequest> frame = new ArrayList<>();
+            for (long driverId = 1; driverId <= 25; driverId++) {
+                frame.add(LocationUpdateRequest.builder()
+                        .driverId(driverId)
+                        .latitude((double) ping)
+                        .longitude(77.59)
+                        .isAvailable(true)
+                        .build());
+            }
+            assertTrue(pipeline.submit(frame));
+        }
+        pipeline.stop();
+
+        assertEquals(25, writtenLatitudes.size());
+        writers.values().forEach(threads -> assertEquals(1, threads.size()));
+        for (List<Double> latitudes : writtenLatitudes.values()) {
+            assertEquals(200, latitudes.size());
+            for (int ping = 0; ping < 200; ping++) {
+                assertEquals(ping, latitudes.get(ping), 0.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ridesharing.driverlocationservice.service;
+
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.dto.NearbyDriverResponse;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import com.ridesharing.driverlocationservice.repository.InMemoryDriverLocationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearbyDriverCacheTest {
+
+    private static final double BASE_LATITUDE = 12.97;
+    private static final double BASE_LONGITUDE = 77.59;
+
+    private final InMemoryDriverLocationStore store = new InMemoryDriverLocationStore(0.01);
+
+    @Test
+    void cachedAnswerMatchesStoreForEveryPointOfADenseCell() {
+        Random random = new Random(7);
+        List<LocationUpdateRequest> drivers = new ArrayList<>();
+        for (long driverId = 1; driverId <= 4000; driverId++) {
+            drivers.add(LocationUpdateRequest.builder()
+                    .driverId(driverId)
+                    .latitude(BASE_LATITUDE + (random.nextDouble() - 0.5) * 0.03)
+                    .longitude(BASE_LONGITUDE + (random.nextDouble() - 0.5) * 0.03)
+                    .vehicleType(VehicleType.values()[random.nextInt(VehicleType.values().length)])
+                    .isAvailable(true)
+                    .build());
+        }
+        store.saveAll(drivers);
+        NearbyDriverCache cache = cache(5000);
+
+        for (int query = 0; query < 300; query++) {
+            // callers spread over a few cache cells, up to the far corners of each
+            double latitude = BASE_LATITUDE + (random.nextDouble() - 0.5) * 0.012;
+            double longitude = BASE_LONGITUDE + (random.nextDouble() - 0.5) * 0.012;
+            double radiusInKm = 0.2 + random.nextDouble() * 2;
+            VehicleType type = random.nextBoolean() ? null : VehicleType.SEDAN;
+
+            List<Long> expected = ids(store.findNearby(latitude, longitude, radiusInKm, type, 20));
+            List<Long> cached = ids(cache.get(latitude, longitude, radiusInKm, type, 20,
+                    (lat, lng, radius, limit) -> store.findNearby(lat, lng, radius, type, limit)));
+            assertEquals(expected, cached, "query " + query);
+        }
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws InterruptedException {
+        NearbyDriverCache cache = cache(5000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 16; i++) {
+            executor.submit(() -> {
+                start.await();
+                return cache.get(BASE_LATITUDE, BASE_LONGITUDE, 1, null, 20, (lat, lng, radius, limit) -> {
+                    loads.incrementAndGet();
+                    sleep(50);
+                    return List.of();
+                });
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void indexChangeInCoveredCellForcesReload() {
+        NearbyDriverCache cache = cache(5000);
+        AtomicInteger loads = new AtomicInteger();
+        NearbyDriverCache.NearbyLoader loader = (lat, lng, radius, limit) -> {
+            loads.incrementAndGet();
+            return List.of();
+        };
+
+        cache.get(BASE_LATITUDE, BASE_LONGITUDE, 1, null, 20, loader);
+        cache.get(BASE_LATITUDE, BASE_LONGITUDE, 1, null, 20, loader);
+        assertEquals(1, loads.get());
+
+        cache.invalidate(BASE_LATITUDE + 0.003, BASE_LONGITUDE);
+        cache.get(BASE_LATITUDE, BASE_LONGITUDE, 1, null, 20, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void idleCellVersionsAreDropped() throws InterruptedException {
+        NearbyDriverCache cache = new NearbyDriverCache(new SimpleMeterRegistry(), true, 0.005, 20, 500_000, 5000);
+
+        for (int i = 0; i < 50; i++) {
+            cache.invalidate(BASE_LATITUDE + i * 0.01, BASE_LONGITUDE);
+        }
+        assertEquals(50, cache.versionedCells());
+
+        Thread.sleep(100);
+        assertEquals(0, cache.versionedCells());
+    }
+
+    @Test
+    void fullEntryIsBypassedForAnExactQuery() {
+        NearbyDriverCache cache = cache(2);
+        List<double[]> loadsAt = new ArrayList<>();
+        NearbyDriverCache.NearbyLoader loader = (lat, lng, radius, limit) -> {
+            loadsAt.add(new double[]{lat, lng, limit});
+            return List.of(driver(1, lat, lng), driver(2, lat, lng));
+        };
+
+        cache.get(BASE_LATITUDE, BASE_LONGITUDE, 1, null, 20, loader);
+
+        assertEquals(2, loadsAt.size());
+        assertEquals(BASE_LATITUDE, loadsAt.get(1)[0], 1e-9);
+        assertEquals(BASE_LONGITUDE, loadsAt.get(1)[1], 1e-9);
+        assertEquals(20, loadsAt.get(1)[2], 1e-9);
+    }
+
+    private static NearbyDriverCache cache(int maxEntryDrivers) {
+        return new NearbyDriverCache(new SimpleMeterRegistry(), true, 0.005, 60_000, 500_000, maxEntryDrivers);
+    }
+
+    private static NearbyDriverResponse driver(long driverId, double latitude, double longitude) {
+        return NearbyDriverResponse.builder()
+                .driverId(driverId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .vehicleType(VehicleType.AUTO)
+                .distanceInKm(0.0)
+                .build();
+    }
+
+    private static List<Long> ids(List<NearbyDriverResponse> drivers) {
+        return drivers.stream().map(NearbyDriverResponse::getDriverId).toList();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
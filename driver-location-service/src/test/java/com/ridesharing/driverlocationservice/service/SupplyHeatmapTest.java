@@ -0,0 +1,67 @@
+package com.ridesharing.driverlocationservice.service;
+
+import com.ridesharing.driverlocationservice.dto.HeatmapCellResponse;
+import com.ridesharing.driverlocationservice.dto.LocationUpdateRequest;
+import com.ridesharing.driverlocationservice.model.VehicleType;
+import com.ridesharing.driverlocationservice.repository.InMemoryDriverLocationStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SupplyHeatmapTest {
+
+    private final InMemoryDriverLocationStore store = new InMemoryDriverLocationStore(0.01);
+    private final SupplyHeatmap heatmap = new SupplyHeatmap(store, 0.02);
+
+    @Test
+    void rebuildCountsEveryAvailableDriverInTheSharedStore() {
+        // as if written by different replicas: the heatmap only reads the store
+        store.saveAll(List.of(
+                update(1L, 12.971, 77.591, VehicleType.SEDAN, true),
+                update(2L, 12.972, 77.592, VehicleType.SEDAN, true),
+                update(3L, 12.973, 77.593, VehicleType.AUTO, true),
+                update(4L, 12.974, 77.594, VehicleType.SEDAN, false),
+                update(5L, 13.051, 77.591, VehicleType.SEDAN, true)));
+
+        assertEquals(4, heatmap.rebuild());
+
+        List<HeatmapCellResponse> cells = heatmap.snapshot().getCells();
+        assertEquals(3, cells.size());
+        assertEquals(2, count(cells, 12.971, 77.591, VehicleType.SEDAN));
+        assertEquals(1, count(cells, 12.973, 77.593, VehicleType.AUTO));
+        assertEquals(1, count(cells, 13.051, 77.591, VehicleType.SEDAN));
+    }
+
+    @Test
+    void removedDriversDropOutOnTheNextRebuild() {
+        store.saveAll(List.of(update(1L, 12.971, 77.591, VehicleType.SEDAN, true)));
+        heatmap.rebuild();
+        assertEquals(1, heatmap.snapshot().getCells().size());
+
+        store.remove(1L);
+        heatmap.rebuild();
+        assertTrue(heatmap.snapshot().getCells().isEmpty());
+    }
+
+    private static int count(List<HeatmapCellResponse> cells, double latitude, double longitude, VehicleType type) {
+        int row = (int) Math.floor((latitude + 90.0) / 0.02);
+        int col = (int) Math.floor((longitude + 180.0) / 0.02);
+        return cells.stream()
+                .filter(cell -> cell.getRow() == row && cell.getCol() == col && cell.getVehicleType() == type)
+                .mapToInt(HeatmapCellResponse::getCount)
+                .sum();
+    }
+
+    private static LocationUpdateRequest update(Long driverId, double latitude, double longitude,
+                                                VehicleType vehicleType, boolean available) {
+        return LocationUpdateRequest.builder()
+                .driverId(driverId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .vehicleType(vehicleType)
+                .isAvailable(available)
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.ridesharing.pricingservice.config;
 import com.ridesharing.pricingservice.model.PricingRule;
 import com.ridesharing.pricingservice.model.VehicleType;
 import com.ridesharing.pricingservice.repository.PricingRuleRepository;
+import com.ridesharing.pricingservice.service.PricingRuleRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -14,11 +15,13 @@ import org.springframework.stereotype.Component;
 public class DataSeeder implements CommandLineRunner {
 
     private final PricingRuleRepository pricingRuleRepository;
+    private final PricingRuleRegistry pricingRuleRegistry;
 
     @Override
     public void run(String... args) {
         if (pricingRuleRepository.count() > 0) {
             log.info("Pricing rules already seeded, skipping...");
+            pricingRuleRegistry.reload();
             return;
         }
 
@@ -65,5 +68,6 @@ public class DataSeeder implements CommandLineRunner {
                 .build());
 
         log.info("Pricing rules seeded successfully!");
+        pricingRuleRegistry.reload();
     }
 }
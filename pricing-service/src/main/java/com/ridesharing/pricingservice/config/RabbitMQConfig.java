@@ -0,0 +1,43 @@
+package com.ridesharing.pricingservice.config;
+
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    // Fanout — every pricing replica binds its own anonymous queue and reloads its rules
+    public static final String PRICING_EVENTS_EXCHANGE = "pricing.events";
+
+    @Bean
+    public FanoutExchange pricingEventsExchange() {
+        return new FanoutExchange(PRICING_EVENTS_EXCHANGE);
+    }
+
+    @Bean
+    public Queue pricingRulesChangedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding pricingRulesChangedBinding(Queue pricingRulesChangedQueue, FanoutExchange pricingEventsExchange) {
+        return BindingBuilder.bind(pricingRulesChangedQueue).to(pricingEventsExchange);
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMessageConverter(jsonMessageConverter());
+        return template;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ridesharing.pricingservice.consumer;
+
+import com.ridesharing.pricingservice.event.PricingRulesChangedEvent;
+import com.ridesharing.pricingservice.service.PricingRuleRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PricingRulesChangedConsumer {
+
+    private final PricingRuleRegistry pricingRuleRegistry;
+
+    @RabbitListener(queues = "#{pricingRulesChangedQueue.name}")
+    public void handleRulesChanged(PricingRulesChangedEvent event) {
+        log.info("Received pricing rules change for {}, reloading", event.getVehicleType());
+        pricingRuleRegistry.reload();
+    }
+}
@@ -19,16 +19,45 @@ public class PricingController {
 
     @PostMapping("/calculate")
     public ResponseEntity<PriceCalculationResponse> calculateFare(
-            @Valid @RequestBody PriceCalculationRequest request) {
+            @Valid @RequestBody PriceCalculationRequest request,
+            @RequestParam(defaultValue = "false") boolean breakdown) {
         PriceCalculationResponse response = pricingService.calculateFare(request);
+        if (breakdown) {
+            pricingService.withFareBreakdown(response);
+        }
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/calculate/batch")
+    public ResponseEntity<List<PriceCalculationResponse>> calculateFares(
+            @Valid @RequestBody BatchPriceCalculationRequest request,
+            @RequestParam(defaultValue = "false") boolean breakdown) {
+        List<PriceCalculationResponse> responses = pricingService.calculateFares(request.getRequests());
+        if (breakdown) {
+            responses.forEach(pricingService::withFareBreakdown);
+        }
+        return ResponseEntity.ok(responses);
+    }
+
     @GetMapping("/estimates")
     public ResponseEntity<List<PriceEstimateResponse>> getAllEstimates(
             @RequestParam Double distanceInKm,
-            @RequestParam Double durationMinutes) {
-        List<PriceEstimateResponse> estimates = pricingService.getAllEstimates(distanceInKm, durationMinutes);
+            @RequestParam Double durationMinutes,
+            @RequestParam(required = false) Double pickupLatitude,
+            @RequestParam(required = false) Double pickupLongitude) {
+        List<PriceEstimateResponse> estimates =
+                pricingService.getAllEstimates(distanceInKm, durationMinutes, pickupLatitude, pickupLongitude);
+        return ResponseEntity.ok(estimates);
+    }
+
+    @GetMapping("/estimates/route")
+    public ResponseEntity<List<PriceEstimateResponse>> getRouteEstimates(
+            @RequestParam Double pickupLatitude,
+            @RequestParam Double pickupLongitude,
+            @RequestParam Double dropoffLatitude,
+            @RequestParam Double dropoffLongitude) {
+        List<PriceEstimateResponse> estimates = pricingService.getRouteEstimates(
+                pickupLatitude, pickupLongitude, dropoffLatitude, dropoffLongitude);
         return ResponseEntity.ok(estimates);
     }
 
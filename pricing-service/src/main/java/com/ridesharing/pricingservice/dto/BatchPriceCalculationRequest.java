@@ -0,0 +1,22 @@
+package com.ridesharing.pricingservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPriceCalculationRequest {
+
+    @NotEmpty(message = "At least one quote request is required")
+    @Size(max = 5000, message = "At most 5000 quotes per batch")
+    private List<@Valid PriceCalculationRequest> requests;
+}
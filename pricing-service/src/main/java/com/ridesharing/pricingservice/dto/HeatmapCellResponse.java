@@ -0,0 +1,18 @@
+package com.ridesharing.pricingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapCellResponse {
+
+    private Integer row;
+    private Integer col;
+    private String vehicleType;
+    private Integer count;
+}
@@ -0,0 +1,21 @@
+package com.ridesharing.pricingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Supply (driver-location-service) or demand (ride-service) heatmap as served by its owner. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapResponse {
+
+    private Double cellSizeDegrees;
+    private LocalDateTime generatedAt;
+    private List<HeatmapCellResponse> cells;
+}
@@ -24,4 +24,8 @@ public class PriceCalculationRequest {
 
     @NotNull(message = "Vehicle type is required")
     private VehicleType vehicleType;
+
+    // optional — when present, the pickup zone's surge applies
+    private Double pickupLatitude;
+    private Double pickupLongitude;
 }
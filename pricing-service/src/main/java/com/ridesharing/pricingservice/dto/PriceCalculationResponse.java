@@ -1,11 +1,14 @@
 package com.ridesharing.pricingservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.ridesharing.pricingservice.model.VehicleType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -16,10 +19,19 @@ public class PriceCalculationResponse {
     private Double distanceInKm;
     private Double estimatedDurationMinutes;
     private Double baseFare;
+    private Double perKmRate;
     private Double distanceCharge;
+    private Double perMinuteRate;
     private Double timeCharge;
     private Double surgeMultiplier;
     private Double surgeCharge;
+    private Double minimumFare;
     private Double totalFare;
+    // signed quote — pass it to /rides/book to skip re-pricing
+    private String quoteToken;
+    private LocalDateTime quoteExpiresAt;
+
+    // rendered from the components above only when the caller asks for it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String fareBreakdown;
 }
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,4 +17,6 @@ public class PriceEstimateResponse {
     private VehicleType vehicleType;
     private Double estimatedFare;
     private Double surgeMultiplier;
+    private String quoteToken;
+    private LocalDateTime quoteExpiresAt;
 }
@@ -0,0 +1,20 @@
+package com.ridesharing.pricingservice.event;
+
+import com.ridesharing.pricingservice.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PricingEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    public void publishRulesChanged(PricingRulesChangedEvent event) {
+        rabbitTemplate.convertAndSend(RabbitMQConfig.PRICING_EVENTS_EXCHANGE, "", event);
+        log.info("Published pricing rules change for {}", event.getVehicleType());
+    }
+}
@@ -0,0 +1,20 @@
+package com.ridesharing.pricingservice.event;
+
+import com.ridesharing.pricingservice.model.VehicleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRulesChangedEvent {
+
+    private VehicleType vehicleType;
+    private Double surgeMultiplier;
+    private LocalDateTime changedAt;
+}
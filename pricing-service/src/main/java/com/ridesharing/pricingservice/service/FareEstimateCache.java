@@ -0,0 +1,120 @@
+package com.ridesharing.pricingservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ridesharing.pricingservice.dto.PriceEstimateResponse;
+import com.ridesharing.pricingservice.model.VehicleType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Origin/destination cache — estimates are priced once per (pickup cell, dropoff cell,
+ * vehicle type) from the cell centres and reused for every rider in the same pair of cells.
+ *
+ * Keys carry the rule-set and surge versions they were priced with, so a reload or surge
+ * change makes older entries unreachable at once; they age out through the TTL and size
+ * bound. The TTL stays below the quote token lifetime so cached tokens are still valid.
+ * Hit/miss/eviction metrics are published as {@code cache.*{cache=fareEstimates}}.
+ *
+ * A cached quote token carries the cell-centre pickup and distance, and ride-service only
+ * honours it when both are within its distance tolerance of the actual booking. Snapping
+ * moves each end by at most half a cell diagonal, so the trip distance can be off by up to
+ * a whole diagonal; startup fails if that can exceed {@code max-distance-error-km}.
+ *
+ * Entries are priced with the surge multiplier of the pickup cell's centre, so every pickup
+ * in a cell must fall in the same surge zone as its centre: startup also fails unless the
+ * cell size divides {@code pricing.surge.cell-size-degrees} evenly, which nests whole cells
+ * inside each zone on the shared grid origin.
+ */
+@Component
+public class FareEstimateCache {
+
+    // haversine with the same earth radius as PricingService; widest at the equator
+    private static final double KM_PER_DEGREE = 2 * Math.PI * 6371 / 360;
+    // distances are rounded to 0.01 km on both sides of the comparison
+    private static final double ROUNDING_KM = 0.01;
+    private static final double NESTING_TOLERANCE = 1e-9;
+
+    private final double cellSizeDegrees;
+    private final Cache<Key, PriceEstimateResponse> cache;
+
+    public FareEstimateCache(MeterRegistry meterRegistry,
+                             @Value("${pricing.estimate-cache.cell-size-degrees:0.0025}") double cellSizeDegrees,
+                             @Value("${pricing.estimate-cache.max-distance-error-km:0.5}") double maxDistanceErrorKm,
+                             @Value("${pricing.surge.cell-size-degrees:0.02}") double surgeZoneSizeDegrees,
+                             @Value("${pricing.estimate-cache.ttl:60s}") Duration ttl,
+                             @Value("${pricing.estimate-cache.max-size:100000}") long maxSize) {
+        if (worstCaseDistanceErrorKm(cellSizeDegrees) > maxDistanceErrorKm) {
+            throw new IllegalStateException(String.format(
+                    "pricing.estimate-cache.cell-size-degrees %s allows a %.3f km distance error, above %.3f km",
+                    cellSizeDegrees, worstCaseDistanceErrorKm(cellSizeDegrees), maxDistanceErrorKm));
+        }
+        if (!nestsInSurgeZones(cellSizeDegrees, surgeZoneSizeDegrees)) {
+            throw new IllegalStateException(String.format(
+                    "pricing.estimate-cache.cell-size-degrees %s must divide pricing.surge.cell-size-degrees %s evenly",
+                    cellSizeDegrees, surgeZoneSizeDegrees));
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "fareEstimates");
+    }
+
+    public PriceEstimateResponse get(double pickupLatitude, double pickupLongitude,
+                                     double dropoffLatitude, double dropoffLongitude,
+                                     VehicleType vehicleType, long ruleVersion, long surgeVersion,
+                                     EstimateLoader loader) {
+        int pickupRow = row(pickupLatitude);
+        int pickupCol = col(pickupLongitude);
+        int dropoffRow = row(dropoffLatitude);
+        int dropoffCol = col(dropoffLongitude);
+        Key key = new Key(pickupRow, pickupCol, dropoffRow, dropoffCol, vehicleType, ruleVersion, surgeVersion);
+        return cache.get(key, k -> loader.load(
+                centerLatitude(pickupRow), centerLongitude(pickupCol),
+                centerLatitude(dropoffRow), centerLongitude(dropoffCol)));
+    }
+
+    /** Largest difference between a trip's distance and the distance between its snapped cell centres. */
+    static double worstCaseDistanceErrorKm(double cellSizeDegrees) {
+        return cellSizeDegrees * KM_PER_DEGREE * Math.sqrt(2) + ROUNDING_KM;
+    }
+
+    /** Whether whole cells tile each surge zone, so a cell never straddles two zones. */
+    static boolean nestsInSurgeZones(double cellSizeDegrees, double surgeZoneSizeDegrees) {
+        double cellsPerZone = surgeZoneSizeDegrees / cellSizeDegrees;
+        return cellsPerZone >= 1 && Math.abs(cellsPerZone - Math.rint(cellsPerZone)) < NESTING_TOLERANCE;
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellSizeDegrees);
+    }
+
+    private double centerLatitude(int row) {
+        return (row + 0.5) * cellSizeDegrees - 90.0;
+    }
+
+    private double centerLongitude(int col) {
+        return (col + 0.5) * cellSizeDegrees - 180.0;
+    }
+
+    @FunctionalInterface
+    public interface EstimateLoader {
+        PriceEstimateResponse load(double pickupLatitude, double pickupLongitude,
+                                   double dropoffLatitude, double dropoffLongitude);
+    }
+
+    private record Key(int pickupRow, int pickupCol, int dropoffRow, int dropoffCol,
+                       VehicleType vehicleType, long ruleVersion, long surgeVersion) {
+    }
+}
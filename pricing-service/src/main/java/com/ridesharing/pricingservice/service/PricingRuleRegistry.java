@@ -0,0 +1,67 @@
+package com.ridesharing.pricingservice.service;
+
+import com.ridesharing.pricingservice.model.PricingRule;
+import com.ridesharing.pricingservice.model.VehicleType;
+import com.ridesharing.pricingservice.repository.PricingRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * SNAPSHOT — all pricing rules held in an immutable EnumMap that is replaced as a whole on
+ * reload, so quoting never touches the database and never sees a half-updated rule set.
+ * Reloaded after seeding, after a local surge change and on every pricing.events broadcast.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PricingRuleRegistry {
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final AtomicReference<Map<VehicleType, PricingRule>> rules =
+            new AtomicReference<>(Collections.unmodifiableMap(new EnumMap<>(VehicleType.class)));
+    private final AtomicLong version = new AtomicLong();
+
+    public PricingRule get(VehicleType vehicleType) {
+        PricingRule rule = rules.get().get(vehicleType);
+        if (rule == null) {
+            throw new RuntimeException("No pricing rule found for vehicle type: " + vehicleType);
+        }
+        return rule;
+    }
+
+    public Collection<PricingRule> getAll() {
+        return rules.get().values();
+    }
+
+    /** Bumped on every reload; lets caches of derived prices key on the rule set they used. */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void reload() {
+        Map<VehicleType, PricingRule> loaded = new EnumMap<>(VehicleType.class);
+        // copies, so no caller can mutate a rule inside the published snapshot
+        for (PricingRule rule : pricingRuleRepository.findAll()) {
+            loaded.put(rule.getVehicleType(), PricingRule.builder()
+                    .id(rule.getId())
+                    .vehicleType(rule.getVehicleType())
+                    .baseFare(rule.getBaseFare())
+                    .perKmRate(rule.getPerKmRate())
+                    .perMinuteRate(rule.getPerMinuteRate())
+                    .minimumFare(rule.getMinimumFare())
+                    .surgeMultiplier(rule.getSurgeMultiplier())
+                    .build());
+        }
+        rules.set(Collections.unmodifiableMap(loaded));
+        version.incrementAndGet();
+        log.info("Loaded {} pricing rules into the in-memory snapshot", loaded.size());
+    }
+}
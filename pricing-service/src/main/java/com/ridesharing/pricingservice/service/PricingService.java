@@ -1,12 +1,18 @@
 package com.ridesharing.pricingservice.service;
 
 import com.ridesharing.pricingservice.dto.*;
+import com.ridesharing.pricingservice.event.PricingEventPublisher;
+import com.ridesharing.pricingservice.event.PricingRulesChangedEvent;
 import com.ridesharing.pricingservice.model.PricingRule;
 import com.ridesharing.pricingservice.model.VehicleType;
 import com.ridesharing.pricingservice.repository.PricingRuleRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -15,64 +21,128 @@ import java.util.stream.Collectors;
 public class PricingService {
 
     private final PricingRuleRepository pricingRuleRepository;
+    private final PricingRuleRegistry pricingRuleRegistry;
+    private final PricingEventPublisher pricingEventPublisher;
+    private final SurgeEngine surgeEngine;
+    private final QuoteTokenSigner quoteTokenSigner;
+    private final FareEstimateCache fareEstimateCache;
+
+    @Value("${pricing.batch.parallel-threshold:256}")
+    private int batchParallelThreshold;
 
     public PriceCalculationResponse calculateFare(PriceCalculationRequest request) {
-        PricingRule rule = pricingRuleRepository.findByVehicleType(request.getVehicleType())
-                .orElseThrow(() -> new RuntimeException(
-                        "No pricing rule found for vehicle type: " + request.getVehicleType()));
+        PricingRule rule = pricingRuleRegistry.get(request.getVehicleType());
 
         double distanceCharge = request.getDistanceInKm() * rule.getPerKmRate();
         double timeCharge = request.getEstimatedDurationMinutes() * rule.getPerMinuteRate();
         double subtotal = rule.getBaseFare() + distanceCharge + timeCharge;
 
+        double surgeMultiplier = Math.max(rule.getSurgeMultiplier(), surgeEngine.multiplierFor(
+                request.getPickupLatitude(), request.getPickupLongitude(), request.getVehicleType()));
         double surgeCharge = 0.0;
-        if (rule.getSurgeMultiplier() > 1.0) {
-            surgeCharge = subtotal * (rule.getSurgeMultiplier() - 1.0);
+        if (surgeMultiplier > 1.0) {
+            surgeCharge = subtotal * (surgeMultiplier - 1.0);
         }
 
         double totalFare = subtotal + surgeCharge;
         totalFare = Math.max(totalFare, rule.getMinimumFare());
         totalFare = Math.round(totalFare * 100.0) / 100.0;
 
-        String breakdown = String.format(
-                "Base: ₹%.2f + Distance(%.1fkm × ₹%.2f): ₹%.2f + Time(%.0fmin × ₹%.2f): ₹%.2f + Surge(%.1fx): ₹%.2f = Total: ₹%.2f",
-                rule.getBaseFare(),
-                request.getDistanceInKm(), rule.getPerKmRate(), distanceCharge,
-                request.getEstimatedDurationMinutes(), rule.getPerMinuteRate(), timeCharge,
-                rule.getSurgeMultiplier(), surgeCharge,
-                totalFare
-        );
-
-        return PriceCalculationResponse.builder()
+        PriceCalculationResponse response = PriceCalculationResponse.builder()
                 .vehicleType(request.getVehicleType())
                 .distanceInKm(request.getDistanceInKm())
                 .estimatedDurationMinutes(request.getEstimatedDurationMinutes())
                 .baseFare(rule.getBaseFare())
+                .perKmRate(rule.getPerKmRate())
                 .distanceCharge(distanceCharge)
+                .perMinuteRate(rule.getPerMinuteRate())
                 .timeCharge(timeCharge)
-                .surgeMultiplier(rule.getSurgeMultiplier())
+                .surgeMultiplier(surgeMultiplier)
                 .surgeCharge(surgeCharge)
+                .minimumFare(rule.getMinimumFare())
                 .totalFare(totalFare)
-                .fareBreakdown(breakdown)
                 .build();
+
+        long expiresAt = quoteTokenSigner.expiresAt();
+        response.setQuoteToken(quoteTokenSigner.sign(request, response, expiresAt));
+        response.setQuoteExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), ZoneId.systemDefault()));
+        return response;
+    }
+
+    /** Renders the human-readable breakdown on demand — kept off the quote hot path. */
+    public PriceCalculationResponse withFareBreakdown(PriceCalculationResponse response) {
+        response.setFareBreakdown(String.format(
+                "Base: ₹%.2f + Distance(%.1fkm × ₹%.2f): ₹%.2f + Time(%.0fmin × ₹%.2f): ₹%.2f + Surge(%.1fx): ₹%.2f = Total: ₹%.2f",
+                response.getBaseFare(),
+                response.getDistanceInKm(), response.getPerKmRate(), response.getDistanceCharge(),
+                response.getEstimatedDurationMinutes(), response.getPerMinuteRate(), response.getTimeCharge(),
+                response.getSurgeMultiplier(), response.getSurgeCharge(),
+                response.getTotalFare()
+        ));
+        return response;
+    }
+
+    /**
+     * Batch quoting — quotes are pure CPU against the rule and surge snapshots, so large
+     * batches are split across the common fork-join pool. Responses keep request order.
+     */
+    public List<PriceCalculationResponse> calculateFares(List<PriceCalculationRequest> requests) {
+        if (requests.size() < batchParallelThreshold) {
+            return requests.stream().map(this::calculateFare).toList();
+        }
+        return requests.parallelStream().map(this::calculateFare).toList();
+    }
+
+    /** One signed quote per vehicle type, priced exactly like {@link #calculateFare}. */
+    public List<PriceEstimateResponse> getAllEstimates(Double distanceInKm, Double durationMinutes,
+                                                       Double pickupLatitude, Double pickupLongitude) {
+        return pricingRuleRegistry.getAll().stream()
+                .map(rule -> calculateFare(PriceCalculationRequest.builder()
+                        .distanceInKm(distanceInKm)
+                        .estimatedDurationMinutes(durationMinutes)
+                        .vehicleType(rule.getVehicleType())
+                        .pickupLatitude(pickupLatitude)
+                        .pickupLongitude(pickupLongitude)
+                        .build()))
+                .map(quote -> PriceEstimateResponse.builder()
+                        .vehicleType(quote.getVehicleType())
+                        .estimatedFare(quote.getTotalFare())
+                        .surgeMultiplier(quote.getSurgeMultiplier())
+                        .quoteToken(quote.getQuoteToken())
+                        .quoteExpiresAt(quote.getQuoteExpiresAt())
+                        .build())
+                .collect(Collectors.toList());
     }
 
-    public List<PriceEstimateResponse> getAllEstimates(Double distanceInKm, Double durationMinutes) {
-        return pricingRuleRepository.findAll().stream()
-                .map(rule -> {
-                    double fare = rule.getBaseFare()
-                            + (distanceInKm * rule.getPerKmRate())
-                            + (durationMinutes * rule.getPerMinuteRate());
-                    fare *= rule.getSurgeMultiplier();
-                    fare = Math.max(fare, rule.getMinimumFare());
-                    fare = Math.round(fare * 100.0) / 100.0;
-
-                    return PriceEstimateResponse.builder()
-                            .vehicleType(rule.getVehicleType())
-                            .estimatedFare(fare)
-                            .surgeMultiplier(rule.getSurgeMultiplier())
-                            .build();
-                })
+    /**
+     * Route estimates for every vehicle type, served from {@link FareEstimateCache}. Distance
+     * and duration are derived from the pickup and dropoff cell centres, the same way
+     * ride-service estimates them at booking time.
+     */
+    public List<PriceEstimateResponse> getRouteEstimates(Double pickupLatitude, Double pickupLongitude,
+                                                         Double dropoffLatitude, Double dropoffLongitude) {
+        long ruleVersion = pricingRuleRegistry.getVersion();
+        long surgeVersion = surgeEngine.getVersion();
+        return pricingRuleRegistry.getAll().stream()
+                .map(rule -> fareEstimateCache.get(pickupLatitude, pickupLongitude, dropoffLatitude, dropoffLongitude,
+                        rule.getVehicleType(), ruleVersion, surgeVersion,
+                        (pickupLat, pickupLng, dropoffLat, dropoffLng) -> {
+                            double distanceInKm = calculateDistance(pickupLat, pickupLng, dropoffLat, dropoffLng);
+                            PriceCalculationResponse quote = calculateFare(PriceCalculationRequest.builder()
+                                    .distanceInKm(distanceInKm)
+                                    .estimatedDurationMinutes(Math.round(distanceInKm * 3.0 * 100.0) / 100.0)
+                                    .vehicleType(rule.getVehicleType())
+                                    .pickupLatitude(pickupLat)
+                                    .pickupLongitude(pickupLng)
+                                    .build());
+                            return PriceEstimateResponse.builder()
+                                    .vehicleType(quote.getVehicleType())
+                                    .estimatedFare(quote.getTotalFare())
+                                    .surgeMultiplier(quote.getSurgeMultiplier())
+                                    .quoteToken(quote.getQuoteToken())
+                                    .quoteExpiresAt(quote.getQuoteExpiresAt())
+                                    .build();
+                        }))
                 .collect(Collectors.toList());
     }
 
@@ -82,5 +152,23 @@ public class PricingService {
                         "No pricing rule found for vehicle type: " + vehicleType));
         rule.setSurgeMultiplier(surgeMultiplier);
         pricingRuleRepository.save(rule);
+
+        pricingRuleRegistry.reload();
+        pricingEventPublisher.publishRulesChanged(PricingRulesChangedEvent.builder()
+                .vehicleType(vehicleType)
+                .surgeMultiplier(surgeMultiplier)
+                .changedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+        final int R = 6371;
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return Math.round(R * c * 100.0) / 100.0;
     }
 }
@@ -0,0 +1,77 @@
+package com.ridesharing.pricingservice.service;
+
+import com.ridesharing.pricingservice.dto.PriceCalculationRequest;
+import com.ridesharing.pricingservice.dto.PriceCalculationResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.StringJoiner;
+
+/**
+ * QUOTE TOKENS — {@code base64url(payload).base64url(HMAC-SHA256(payload))}, where the payload
+ * pins the vehicle type, pickup, distance, duration, fare components and expiry of a quote.
+ * ride-service holds the same secret and verifies tokens locally at booking time instead
+ * of calling back into pricing-service. Field order must match ride-service's QuoteTokenVerifier.
+ */
+@Component
+public class QuoteTokenSigner {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    // Mac instances are not thread-safe
+    private final ThreadLocal<Mac> macs;
+
+    public QuoteTokenSigner(@Value("${pricing.quote.secret}") String secret,
+                            @Value("${pricing.quote.ttl:2m}") Duration ttl) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("pricing.quote.secret is not set (PRICING_QUOTE_SECRET)");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.ttl = ttl;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public long expiresAt() {
+        return System.currentTimeMillis() + ttl.toMillis();
+    }
+
+    public String sign(PriceCalculationRequest request, PriceCalculationResponse quote, long expiresAtMillis) {
+        String payload = new StringJoiner("|")
+                .add(VERSION)
+                .add(quote.getVehicleType().name())
+                .add(String.valueOf(request.getPickupLatitude() != null ? request.getPickupLatitude() : ""))
+                .add(String.valueOf(request.getPickupLongitude() != null ? request.getPickupLongitude() : ""))
+                .add(String.valueOf(quote.getDistanceInKm()))
+                .add(String.valueOf(quote.getEstimatedDurationMinutes()))
+                .add(String.valueOf(quote.getTotalFare()))
+                .add(String.valueOf(quote.getBaseFare()))
+                .add(String.valueOf(quote.getDistanceCharge()))
+                .add(String.valueOf(quote.getTimeCharge()))
+                .add(String.valueOf(quote.getSurgeMultiplier()))
+                .add(String.valueOf(quote.getSurgeCharge()))
+                .add(String.valueOf(expiresAtMillis))
+                .toString();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(macs.get().doFinal(payloadBytes));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot initialise quote token signer", ex);
+        }
+    }
+}
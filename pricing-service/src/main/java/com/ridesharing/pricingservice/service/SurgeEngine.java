@@ -0,0 +1,175 @@
+package com.ridesharing.pricingservice.service;
+
+import com.ridesharing.pricingservice.dto.HeatmapCellResponse;
+import com.ridesharing.pricingservice.dto.HeatmapResponse;
+import com.ridesharing.pricingservice.model.VehicleType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Zone surge — every few seconds pulls the supply heatmap (available drivers) and the
+ * demand heatmap (open ride requests), averages both per (zone, vehicle type) over a
+ * sliding window and turns the demand/supply ratio into a multiplier.
+ *
+ * The result is published as an immutable snapshot behind an {@link AtomicReference},
+ * so fare lookups are a lock-free map read. If either heatmap cannot be fetched the
+ * previous snapshot keeps being served.
+ */
+@Component
+@Slf4j
+public class SurgeEngine {
+
+    private static final String SUPPLY_HEATMAP_URL = "http://driver-location-service/locations/heatmap";
+    private static final String DEMAND_HEATMAP_URL = "http://ride-service/rides/heatmap";
+
+    private final RestTemplate restTemplate;
+    private final double cellSizeDegrees;
+    private final long windowMillis;
+    private final double ratioThreshold;
+    private final double sensitivity;
+    private final double maxMultiplier;
+    // only touched by the scheduler thread
+    private final Deque<Sample> window = new ArrayDeque<>();
+    private final AtomicReference<SurgeSnapshot> snapshot = new AtomicReference<>(new SurgeSnapshot(Map.of(), 0L));
+
+    public SurgeEngine(RestTemplate restTemplate,
+                       @Value("${pricing.surge.cell-size-degrees:0.02}") double cellSizeDegrees,
+                       @Value("${pricing.surge.window:60s}") Duration window,
+                       @Value("${pricing.surge.ratio-threshold:1.0}") double ratioThreshold,
+                       @Value("${pricing.surge.sensitivity:0.5}") double sensitivity,
+                       @Value("${pricing.surge.max-multiplier:3.0}") double maxMultiplier) {
+        this.restTemplate = restTemplate;
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.windowMillis = window.toMillis();
+        this.ratioThreshold = ratioThreshold;
+        this.sensitivity = sensitivity;
+        this.maxMultiplier = maxMultiplier;
+    }
+
+    /** Zone multiplier for a pickup point, 1.0 when unknown or not surging. */
+    public double multiplierFor(Double latitude, Double longitude, VehicleType vehicleType) {
+        if (latitude == null || longitude == null) {
+            return 1.0;
+        }
+        return snapshot.get().multipliers().getOrDefault(
+                new Zone(row(latitude), col(longitude), vehicleType), 1.0);
+    }
+
+    public long getVersion() {
+        return snapshot.get().version();
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.surge.recompute-interval-ms:5000}")
+    public void recompute() {
+        HeatmapResponse supply = fetch(SUPPLY_HEATMAP_URL);
+        HeatmapResponse demand = fetch(DEMAND_HEATMAP_URL);
+        if (supply == null || demand == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        window.addLast(new Sample(now, countsByZone(supply), countsByZone(demand)));
+        while (window.peekFirst().timestampMillis() < now - windowMillis) {
+            window.removeFirst();
+        }
+
+        Map<Zone, Integer> demandTotals = new HashMap<>();
+        Map<Zone, Integer> supplyTotals = new HashMap<>();
+        for (Sample sample : window) {
+            sample.demand().forEach((zone, count) -> demandTotals.merge(zone, count, Integer::sum));
+            sample.supply().forEach((zone, count) -> supplyTotals.merge(zone, count, Integer::sum));
+        }
+
+        // zones without demand never surge, so only they need a ratio
+        int samples = window.size();
+        Map<Zone, Double> multipliers = new HashMap<>();
+        demandTotals.forEach((zone, demandTotal) -> {
+            double averageDemand = (double) demandTotal / samples;
+            double averageSupply = (double) supplyTotals.getOrDefault(zone, 0) / samples;
+            double multiplier = multiplier(averageDemand, averageSupply);
+            if (multiplier > 1.0) {
+                multipliers.put(zone, multiplier);
+            }
+        });
+
+        // the version only moves when some multiplier actually changed, so caches keyed on it survive quiet periods
+        SurgeSnapshot previous = snapshot.get();
+        if (!previous.multipliers().equals(multipliers)) {
+            snapshot.set(new SurgeSnapshot(Map.copyOf(multipliers), previous.version() + 1));
+        }
+        log.debug("Surge recomputed over {} samples: {} zones surging", samples, multipliers.size());
+    }
+
+    private double multiplier(double demand, double supply) {
+        double ratio = demand / Math.max(supply, 1.0);
+        if (ratio <= ratioThreshold) {
+            return 1.0;
+        }
+        double multiplier = Math.min(1.0 + sensitivity * (ratio - ratioThreshold), maxMultiplier);
+        return Math.round(multiplier * 10.0) / 10.0;
+    }
+
+    private HeatmapResponse fetch(String url) {
+        try {
+            HeatmapResponse heatmap = restTemplate.getForObject(url, HeatmapResponse.class);
+            if (heatmap != null && heatmap.getCellSizeDegrees() != null
+                    && Double.compare(heatmap.getCellSizeDegrees(), cellSizeDegrees) != 0) {
+                log.warn("Heatmap from {} uses {}° cells, surge expects {}°; ignoring it",
+                        url, heatmap.getCellSizeDegrees(), cellSizeDegrees);
+                return null;
+            }
+            return heatmap;
+        } catch (RestClientException ex) {
+            log.warn("Could not fetch heatmap from {}, keeping previous surge: {}", url, ex.getMessage());
+            return null;
+        }
+    }
+
+    private static Map<Zone, Integer> countsByZone(HeatmapResponse heatmap) {
+        if (heatmap.getCells() == null) {
+            return Map.of();
+        }
+        Map<Zone, Integer> counts = new HashMap<>();
+        for (HeatmapCellResponse cell : heatmap.getCells()) {
+            VehicleType vehicleType = parseVehicleType(cell.getVehicleType());
+            if (vehicleType != null) {
+                counts.merge(new Zone(cell.getRow(), cell.getCol(), vehicleType), cell.getCount(), Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static VehicleType parseVehicleType(String vehicleType) {
+        try {
+            return vehicleType != null ? VehicleType.valueOf(vehicleType) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    // same grid as the heatmap owners
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellSizeDegrees);
+    }
+
+    private record Zone(int row, int col, VehicleType vehicleType) {
+    }
+
+    private record Sample(long timestampMillis, Map<Zone, Integer> supply, Map<Zone, Integer> demand) {
+    }
+
+    private record SurgeSnapshot(Map<Zone, Double> multipliers, long version) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.ridesharing.pricingservice.service;
+
+import com.ridesharing.pricingservice.dto.PriceEstimateResponse;
+import com.ridesharing.pricingservice.model.VehicleType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FareEstimateCacheTest {
+
+    // ride.quote.distance-tolerance-km
+    private static final double BOOKING_TOLERANCE_KM = 0.5;
+    // pricing.surge.cell-size-degrees
+    private static final double SURGE_ZONE_SIZE = 0.02;
+
+    @Test
+    void cachedQuotesStayWithinTheBookingToleranceAtTheDefaultCellSize() {
+        FareEstimateCache cache = cache(0.0025);
+        assertTrue(FareEstimateCache.worstCaseDistanceErrorKm(0.0025) <= BOOKING_TOLERANCE_KM);
+
+        Random random = new Random(3);
+        double[] latitudes = {0.0, 12.97, 28.61, 51.5};
+        for (int trip = 0; trip < 20_000; trip++) {
+            double pickupLatitude = latitudes[trip % latitudes.length] + random.nextDouble() * 0.1;
+            double pickupLongitude = 77.0 + random.nextDouble() * 0.1;
+            double dropoffLatitude = pickupLatitude + (random.nextDouble() - 0.5) * 0.3;
+            double dropoffLongitude = pickupLongitude + (random.nextDouble() - 0.5) * 0.3;
+            double[] centres = new double[4];
+
+            // a distinct rule version per trip forces a load, so every trip sees its own cell centres
+            cache.get(pickupLatitude, pickupLongitude, dropoffLatitude, dropoffLongitude, VehicleType.SEDAN,
+                    trip, 0, (pickupLat, pickupLng, dropoffLat, dropoffLng) -> {
+                        centres[0] = pickupLat;
+                        centres[1] = pickupLng;
+                        centres[2] = dropoffLat;
+                        centres[3] = dropoffLng;
+                        return PriceEstimateResponse.builder().vehicleType(VehicleType.SEDAN).build();
+                    });
+
+            double quotedKm = distanceKm(centres[0], centres[1], centres[2], centres[3]);
+            double bookedKm = distanceKm(pickupLatitude, pickupLongitude, dropoffLatitude, dropoffLongitude);
+            assertTrue(Math.abs(quotedKm - bookedKm) <= BOOKING_TOLERANCE_KM, "trip " + trip);
+            assertTrue(Math.abs(quotedKm - bookedKm) <= FareEstimateCache.worstCaseDistanceErrorKm(0.0025), "trip " + trip);
+            assertTrue(distanceKm(centres[0], centres[1], pickupLatitude, pickupLongitude) <= BOOKING_TOLERANCE_KM);
+        }
+    }
+
+    @Test
+    void cellsTooCoarseForTheToleranceAreRejected() {
+        // 0.005° cells are ~780 m across the diagonal at the equator
+        assertTrue(FareEstimateCache.worstCaseDistanceErrorKm(0.005) > BOOKING_TOLERANCE_KM);
+        assertThrows(IllegalStateException.class, () -> cache(0.005));
+    }
+
+    @Test
+    void cachedQuotesArePricedInThePickupsOwnSurgeZone() {
+        FareEstimateCache cache = cache(0.0025);
+
+        Random random = new Random(5);
+        for (int trip = 0; trip < 20_000; trip++) {
+            // pickups clustered around surge zone boundaries
+            double pickupLatitude = 12.96 + Math.round(random.nextDouble() * 5) * SURGE_ZONE_SIZE
+                    + (random.nextDouble() - 0.5) * 0.004;
+            double pickupLongitude = 77.58 + Math.round(random.nextDouble() * 5) * SURGE_ZONE_SIZE
+                    + (random.nextDouble() - 0.5) * 0.004;
+            double[] pricedAt = new double[2];
+
+            cache.get(pickupLatitude, pickupLongitude, 13.0, 77.6, VehicleType.SEDAN, trip, 0,
+                    (pickupLat, pickupLng, dropoffLat, dropoffLng) -> {
+                        pricedAt[0] = pickupLat;
+                        pricedAt[1] = pickupLng;
+                        return PriceEstimateResponse.builder().vehicleType(VehicleType.SEDAN).build();
+                    });
+
+            assertEquals(zone(pickupLatitude), zone(pricedAt[0]), "trip " + trip);
+            assertEquals(zone(pickupLongitude + 90.0), zone(pricedAt[1] + 90.0), "trip " + trip);
+        }
+    }
+
+    @Test
+    void cellsStraddlingSurgeZonesAreRejected() {
+        assertTrue(FareEstimateCache.worstCaseDistanceErrorKm(0.003) <= BOOKING_TOLERANCE_KM);
+        assertFalse(FareEstimateCache.nestsInSurgeZones(0.003, SURGE_ZONE_SIZE));
+        assertThrows(IllegalStateException.class, () -> cache(0.003));
+        assertTrue(FareEstimateCache.nestsInSurgeZones(0.002, SURGE_ZONE_SIZE));
+        assertFalse(FareEstimateCache.nestsInSurgeZones(0.04, SURGE_ZONE_SIZE));
+    }
+
+    // SurgeEngine's zone row for a latitude (column for a longitude shifted by +90)
+    private static int zone(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / SURGE_ZONE_SIZE);
+    }
+
+    private static FareEstimateCache cache(double cellSizeDegrees) {
+        return new FareEstimateCache(new SimpleMeterRegistry(), cellSizeDegrees, BOOKING_TOLERANCE_KM,
+                SURGE_ZONE_SIZE, Duration.ofSeconds(60), 100_000);
+    }
+
+    // as PricingService and ride-service compute trip distance, including the rounding
+    private static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return Math.round(6371 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a)) * 100.0) / 100.0;
+    }
+}
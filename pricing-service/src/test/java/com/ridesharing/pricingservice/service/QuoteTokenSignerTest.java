@@ -0,0 +1,94 @@
+package com.ridesharing.pricingservice.service;
+
+import com.ridesharing.pricingservice.dto.PriceCalculationRequest;
+import com.ridesharing.pricingservice.dto.PriceCalculationResponse;
+import com.ridesharing.pricingservice.model.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteTokenSignerTest {
+
+    private static final String SECRET = "test-quote-secret";
+
+    private final QuoteTokenSigner signer = new QuoteTokenSigner(SECRET, Duration.ofMinutes(2));
+
+    @Test
+    void tokenPinsTheQuoteInTheLayoutRideServiceVerifies() throws Exception {
+        String token = signer.sign(request(), quote(), 1_700_000_000_000L);
+
+        String[] parts = token.split("\\.");
+        assertEquals(2, parts.length);
+        byte[] payload = Base64.getUrlDecoder().decode(parts[0]);
+        assertArrayEquals(hmac(SECRET, payload), Base64.getUrlDecoder().decode(parts[1]));
+        assertEquals("v1|SEDAN|28.6315|77.2167|12.4|31.0|245.6|50.0|148.8|46.5|1.0|0.0|1700000000000",
+                new String(payload, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void changingAnyQuotedValueChangesTheSignature() {
+        String original = signer.sign(request(), quote(), 1_700_000_000_000L);
+        PriceCalculationResponse cheaper = quote();
+        cheaper.setTotalFare(145.6);
+        String tampered = signer.sign(request(), cheaper, 1_700_000_000_000L);
+        String later = signer.sign(request(), quote(), 1_700_000_000_001L);
+
+        assertNotEquals(original.split("\\.")[1], tampered.split("\\.")[1]);
+        assertNotEquals(original.split("\\.")[1], later.split("\\.")[1]);
+        // a different secret never produces the same signature for the same quote
+        String otherSecret = new QuoteTokenSigner("another-secret", Duration.ofMinutes(2))
+                .sign(request(), quote(), 1_700_000_000_000L);
+        assertEquals(original.split("\\.")[0], otherSecret.split("\\.")[0]);
+        assertNotEquals(original.split("\\.")[1], otherSecret.split("\\.")[1]);
+    }
+
+    @Test
+    void expiryIsTtlFromNow() {
+        long before = System.currentTimeMillis();
+        long expiresAt = signer.expiresAt();
+        assertTrue(expiresAt >= before + 120_000 && expiresAt <= System.currentTimeMillis() + 120_000);
+    }
+
+    @Test
+    void missingSecretFailsFast() {
+        assertThrows(IllegalStateException.class, () -> new QuoteTokenSigner("", Duration.ofMinutes(2)));
+        assertThrows(IllegalStateException.class, () -> new QuoteTokenSigner("   ", Duration.ofMinutes(2)));
+        assertThrows(IllegalStateException.class, () -> new QuoteTokenSigner(null, Duration.ofMinutes(2)));
+    }
+
+    private static PriceCalculationRequest request() {
+        return PriceCalculationRequest.builder()
+                .distanceInKm(12.4)
+                .estimatedDurationMinutes(31.0)
+                .vehicleType(VehicleType.SEDAN)
+                .pickupLatitude(28.6315)
+                .pickupLongitude(77.2167)
+                .build();
+    }
+
+    private static PriceCalculationResponse quote() {
+        return PriceCalculationResponse.builder()
+                .vehicleType(VehicleType.SEDAN)
+                .distanceInKm(12.4)
+                .estimatedDurationMinutes(31.0)
+                .baseFare(50.0)
+                .distanceCharge(148.8)
+                .timeCharge(46.5)
+                .surgeMultiplier(1.0)
+                .surgeCharge(0.0)
+                .totalFare(245.6)
+                .build();
+    }
+
+    private static byte[] hmac(String secret, byte[] payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return mac.doFinal(payload);
+    }
+}
@@ -23,9 +23,14 @@ public class RabbitMQConfig {
     public static final String RIDE_BOOKED_KEY = "ride.booked";
     public static final String RIDE_COMPLETED_KEY = "ride.completed";
     public static final String RIDE_CANCELLED_KEY = "ride.cancelled";
+    // dispatch offers — driver-facing consumers bind their own queues to this key
+    public static final String RIDE_OFFERED_KEY = "ride.offered";
     public static final String PAYMENT_SUCCESS_KEY = "payment.success";
     public static final String PAYMENT_FAILED_KEY = "payment.failed";
 
+    // Fanout — every ride-service replica binds its own anonymous queue and drops cached rides
+    public static final String RIDE_CACHE_EXCHANGE = "ride.cache";
+
     @Bean
     public TopicExchange rideEventsExchange() {
         return new TopicExchange(RIDE_EVENTS_EXCHANGE);
@@ -82,6 +87,21 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(paymentFailedQueue).to(rideEventsExchange).with(PAYMENT_FAILED_KEY);
     }
 
+    @Bean
+    public FanoutExchange rideCacheExchange() {
+        return new FanoutExchange(RIDE_CACHE_EXCHANGE);
+    }
+
+    @Bean
+    public Queue rideCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding rideCacheInvalidationBinding(Queue rideCacheInvalidationQueue, FanoutExchange rideCacheExchange) {
+        return BindingBuilder.bind(rideCacheInvalidationQueue).to(rideCacheExchange);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -2,14 +2,14 @@ package com.ridesharing.rideservice.consumer;
 
 import com.ridesharing.rideservice.config.RabbitMQConfig;
 import com.ridesharing.rideservice.event.RideEvent;
-import com.ridesharing.rideservice.model.Ride;
-import com.ridesharing.rideservice.model.RideStatus;
 import com.ridesharing.rideservice.repository.RideRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+
 /**
  * SAGA PATTERN — Choreography-based
  * 
@@ -34,15 +34,11 @@ public class PaymentSagaConsumer {
     public void handlePaymentSuccess(RideEvent event) {
         log.info("SAGA Step 3a: Payment SUCCESS for ride: {}", event.getRideId());
 
-        Ride ride = rideRepository.findById(event.getRideId()).orElse(null);
-        if (ride == null) {
+        if (rideRepository.updatePaymentStatus(event.getRideId(), "PAID", LocalDateTime.now()) == 0) {
             log.error("SAGA ERROR: Ride {} not found for payment success event", event.getRideId());
             return;
         }
 
-        ride.setPaymentStatus("PAID");
-        rideRepository.save(ride);
-
         log.info("SAGA COMPLETED ✅ — Ride {} fully completed and paid", event.getRideId());
     }
 
@@ -50,16 +46,12 @@ public class PaymentSagaConsumer {
     public void handlePaymentFailed(RideEvent event) {
         log.warn("SAGA Step 3b: Payment FAILED for ride: {} — triggering COMPENSATION", event.getRideId());
 
-        Ride ride = rideRepository.findById(event.getRideId()).orElse(null);
-        if (ride == null) {
+        // COMPENSATING TRANSACTION — revert or flag the ride
+        if (rideRepository.updatePaymentStatus(event.getRideId(), "PAYMENT_FAILED", LocalDateTime.now()) == 0) {
             log.error("SAGA ERROR: Ride {} not found for payment failure event", event.getRideId());
             return;
         }
 
-        // COMPENSATING TRANSACTION — revert or flag the ride
-        ride.setPaymentStatus("PAYMENT_FAILED");
-        rideRepository.save(ride);
-
         log.warn("SAGA COMPENSATION ⚠️ — Ride {} marked as PAYMENT_FAILED. Manual intervention required.", event.getRideId());
     }
 }
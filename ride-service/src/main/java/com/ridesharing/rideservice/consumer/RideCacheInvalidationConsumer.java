@@ -0,0 +1,19 @@
+package com.ridesharing.rideservice.consumer;
+
+import com.ridesharing.rideservice.event.RideCacheInvalidationEvent;
+import com.ridesharing.rideservice.service.RideCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class RideCacheInvalidationConsumer {
+
+    private final RideCache rideCache;
+
+    @RabbitListener(queues = "#{rideCacheInvalidationQueue.name}")
+    public void handleInvalidation(RideCacheInvalidationEvent event) {
+        rideCache.evict(event);
+    }
+}
@@ -4,6 +4,7 @@ import com.ridesharing.rideservice.dto.*;
 import com.ridesharing.rideservice.service.RideService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -50,21 +51,64 @@ public class RideController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/heatmap")
+    public ResponseEntity<HeatmapResponse> getDemandHeatmap() {
+        return ResponseEntity.ok(rideService.getDemandHeatmap());
+    }
+
     @GetMapping("/{rideId}")
-    public ResponseEntity<RideResponse> getRide(@PathVariable Long rideId) {
+    public ResponseEntity<RideResponse> getRide(
+            @PathVariable Long rideId,
+            @RequestParam(defaultValue = "false") boolean breakdown) {
         RideResponse response = rideService.getRide(rideId);
+        if (breakdown) {
+            rideService.withFareBreakdown(response);
+        }
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Deprecated list form, kept for existing clients — returns only the newest 100 rides.
+     * Clients should page through {@code /rides/rider/{riderId}/history} instead.
+     */
+    @Deprecated
     @GetMapping("/rider/{riderId}")
     public ResponseEntity<List<RideResponse>> getRiderHistory(@PathVariable Long riderId) {
         List<RideResponse> history = rideService.getRiderHistory(riderId);
-        return ResponseEntity.ok(history);
+        return deprecatedHistory("/rides/rider/" + riderId + "/history").body(history);
     }
 
+    /** Deprecated list form — newest 100 rides; see {@code /rides/driver/{driverId}/history}. */
+    @Deprecated
     @GetMapping("/driver/{driverId}")
     public ResponseEntity<List<RideResponse>> getDriverHistory(@PathVariable Long driverId) {
         List<RideResponse> history = rideService.getDriverHistory(driverId);
+        return deprecatedHistory("/rides/driver/" + driverId + "/history").body(history);
+    }
+
+    // Paged history: summary rows newest first, continued with ?cursor=<nextCursor>
+    @GetMapping("/rider/{riderId}/history")
+    public ResponseEntity<RideHistoryResponse> getRiderHistoryPage(
+            @PathVariable Long riderId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        RideHistoryResponse history = rideService.getRiderHistoryPage(riderId, cursor, limit);
         return ResponseEntity.ok(history);
     }
+
+    @GetMapping("/driver/{driverId}/history")
+    public ResponseEntity<RideHistoryResponse> getDriverHistoryPage(
+            @PathVariable Long driverId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        RideHistoryResponse history = rideService.getDriverHistoryPage(driverId, cursor, limit);
+        return ResponseEntity.ok(history);
+    }
+
+    // Deprecation and successor Link headers point old clients at the paged route
+    private static ResponseEntity.BodyBuilder deprecatedHistory(String successor) {
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "<" + successor + ">; rel=\"successor-version\"");
+    }
 }
@@ -0,0 +1,17 @@
+package com.ridesharing.rideservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchNearbyRequest {
+
+    private List<NearbyQuery> queries;
+}
@@ -0,0 +1,22 @@
+package com.ridesharing.rideservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Fare for a booking — from a verified quote token, a live pricing call or the local estimate. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FareQuote {
+
+    private Double totalFare;
+    // null when the fare was estimated locally
+    private Double baseFare;
+    private Double distanceCharge;
+    private Double timeCharge;
+    private Double surgeMultiplier;
+    private Double surgeCharge;
+}
@@ -0,0 +1,19 @@
+package com.ridesharing.rideservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyDriverResponse {
+
+    private Long driverId;
+    private Double latitude;
+    private Double longitude;
+    private String vehicleType;
+    private Double distanceInKm;
+}
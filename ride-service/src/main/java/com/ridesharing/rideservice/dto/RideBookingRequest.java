@@ -1,6 +1,7 @@
 package com.ridesharing.rideservice.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,5 +33,9 @@ public class RideBookingRequest {
     private String dropoffAddress;
 
     @NotNull(message = "Vehicle type is required (AUTO, MINI, SEDAN, SUV, PREMIUM)")
+    @Pattern(regexp = "AUTO|MINI|SEDAN|SUV|PREMIUM", message = "Vehicle type must be one of AUTO, MINI, SEDAN, SUV, PREMIUM")
     private String vehicleType;
+
+    // optional signed quote from pricing-service; booked at the quoted fare when valid
+    private String quoteToken;
 }
@@ -0,0 +1,21 @@
+package com.ridesharing.rideservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RideHistoryResponse {
+
+    // newest first
+    private List<RideSummaryResponse> rides;
+
+    // pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
@@ -1,5 +1,7 @@
 package com.ridesharing.rideservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.ridesharing.rideservice.model.RideStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,7 +11,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class RideResponse {
@@ -28,7 +30,19 @@ public class RideResponse {
     private Double distanceInKm;
     private Double estimatedDurationMinutes;
     private Double fare;
+    private Double baseFare;
+    private Double distanceCharge;
+    private Double timeCharge;
+    private Double surgeMultiplier;
+    private Double surgeCharge;
+
+    // rendered from the components only when the caller asks for it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String fareBreakdown;
+
+    // rides booked before the components were stored only have this text
+    @JsonIgnore
+    private String legacyFareBreakdown;
     private LocalDateTime createdAt;
     private LocalDateTime acceptedAt;
     private LocalDateTime startedAt;
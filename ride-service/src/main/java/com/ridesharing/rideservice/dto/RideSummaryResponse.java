@@ -0,0 +1,29 @@
+package com.ridesharing.rideservice.dto;
+
+import com.ridesharing.rideservice.model.RideStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** History row — selected directly by the query, no entity is loaded. Field order is the JPQL constructor order. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RideSummaryResponse {
+
+    private Long id;
+    private Long riderId;
+    private Long driverId;
+    private RideStatus status;
+    private String vehicleType;
+    private String pickupAddress;
+    private String dropoffAddress;
+    private Double fare;
+    private String paymentStatus;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
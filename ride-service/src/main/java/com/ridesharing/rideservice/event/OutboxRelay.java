@@ -0,0 +1,90 @@
+package com.ridesharing.rideservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ridesharing.rideservice.model.OutboxEvent;
+import com.ridesharing.rideservice.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * OUTBOX RELAY — drains ride_outbox in batches. A batch is claimed with
+ * FOR UPDATE SKIP LOCKED, sent on one channel, confirmed with a single
+ * waitForConfirmsOrDie and deleted in the claiming transaction. A broker error or nack
+ * rolls the claim back and the batch is retried on the next tick, so delivery is
+ * at-least-once and consumers must tolerate duplicates.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final long confirmTimeoutMillis;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       ObjectMapper objectMapper,
+                       @Value("${ride.outbox.batch-size:500}") int batchSize,
+                       @Value("${ride.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${ride.outbox.poll-interval-ms:100}")
+    public void relay() {
+        try {
+            // keep draining while batches come back full
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, batch will be retried: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.claimBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : batch) {
+                Object payload = toPayload(event);
+                if (payload != null) {
+                    operations.convertAndSend(event.getExchange(), event.getRoutingKey(), payload);
+                }
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+            return null;
+        });
+        outboxEventRepository.deleteAllInBatch(batch);
+        log.debug("Relayed {} outbox events", batch.size());
+        return batch.size();
+    }
+
+    // an unreadable row is logged and dropped with its batch instead of blocking the outbox
+    private Object toPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+        } catch (Exception e) {
+            log.error("Dropping unreadable outbox event {} ({}) for ride {}: {}",
+                    event.getId(), event.getEventType(), event.getRideId(), e.getMessage());
+            return null;
+        }
+    }
+}
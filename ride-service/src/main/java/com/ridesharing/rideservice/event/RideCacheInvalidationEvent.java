@@ -0,0 +1,20 @@
+package com.ridesharing.rideservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RideCacheInvalidationEvent {
+
+    private Long rideId;
+    // the publishing replica already dropped its own entry
+    private String originInstanceId;
+    private LocalDateTime changedAt;
+}
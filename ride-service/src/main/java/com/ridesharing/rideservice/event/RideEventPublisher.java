@@ -1,45 +1,78 @@
 package com.ridesharing.rideservice.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ridesharing.rideservice.config.RabbitMQConfig;
+import com.ridesharing.rideservice.model.OutboxEvent;
+import com.ridesharing.rideservice.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Ride lifecycle events go through the outbox: they are stored in the caller's transaction
+ * and published by OutboxRelay, so an event exists if and only if its ride change committed.
+ * Dispatch offers expire within seconds and cache invalidations are best-effort, so both
+ * are still sent directly.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class RideEventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishRideBooked(RideEvent event) {
-        event.setEventType("RIDE_BOOKED");
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.RIDE_EVENTS_EXCHANGE,
-                RabbitMQConfig.RIDE_BOOKED_KEY,
-                event
-        );
-        log.info("Published RIDE_BOOKED event for ride: {}", event.getRideId());
+        enqueue("RIDE_BOOKED", RabbitMQConfig.RIDE_BOOKED_KEY, event);
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishRideCompleted(RideEvent event) {
-        event.setEventType("RIDE_COMPLETED");
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.RIDE_EVENTS_EXCHANGE,
-                RabbitMQConfig.RIDE_COMPLETED_KEY,
-                event
-        );
-        log.info("Published RIDE_COMPLETED event for ride: {}", event.getRideId());
+        enqueue("RIDE_COMPLETED", RabbitMQConfig.RIDE_COMPLETED_KEY, event);
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishRideCancelled(RideEvent event) {
-        event.setEventType("RIDE_CANCELLED");
+        enqueue("RIDE_CANCELLED", RabbitMQConfig.RIDE_CANCELLED_KEY, event);
+    }
+
+    public void publishRideOffers(RideOffersEvent event) {
+        event.setEventType("RIDE_OFFERED");
         rabbitTemplate.convertAndSend(
                 RabbitMQConfig.RIDE_EVENTS_EXCHANGE,
-                RabbitMQConfig.RIDE_CANCELLED_KEY,
+                RabbitMQConfig.RIDE_OFFERED_KEY,
                 event
         );
-        log.info("Published RIDE_CANCELLED event for ride: {}", event.getRideId());
+        log.info("Published RIDE_OFFERED event with {} offers", event.getOffers().size());
+    }
+
+    public void publishCacheInvalidation(RideCacheInvalidationEvent event) {
+        rabbitTemplate.convertAndSend(RabbitMQConfig.RIDE_CACHE_EXCHANGE, "", event);
+        log.debug("Published cache invalidation for ride: {}", event.getRideId());
+    }
+
+    private void enqueue(String eventType, String routingKey, RideEvent event) {
+        event.setEventType(eventType);
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize " + eventType + " event for ride: " + event.getRideId(), e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .rideId(event.getRideId())
+                .eventType(eventType)
+                .exchange(RabbitMQConfig.RIDE_EVENTS_EXCHANGE)
+                .routingKey(routingKey)
+                .payloadType(event.getClass().getName())
+                .payload(payload)
+                .build());
+        log.info("Queued {} event for ride: {}", eventType, event.getRideId());
     }
 }
@@ -0,0 +1,26 @@
+package com.ridesharing.rideservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RideOffer implements Serializable {
+
+    private Long rideId;
+    private Long driverId;
+    private Long riderId;
+    private Double pickupLatitude;
+    private Double pickupLongitude;
+    private String pickupAddress;
+    private Double pickupDistanceInKm;
+    private Double fare;
+    private LocalDateTime expiresAt;
+}
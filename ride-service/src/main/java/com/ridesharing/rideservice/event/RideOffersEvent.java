@@ -0,0 +1,22 @@
+package com.ridesharing.rideservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** All offers of one dispatch window, published as a single message. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RideOffersEvent implements Serializable {
+
+    private String eventType;
+    private List<RideOffer> offers;
+    private LocalDateTime timestamp;
+}
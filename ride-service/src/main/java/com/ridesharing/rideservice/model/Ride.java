@@ -8,7 +8,13 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rides")
+@Table(name = "rides", indexes = {
+        // open-request scans: dispatch windows and demand heatmap reconciliation
+        @Index(name = "idx_rides_status", columnList = "status"),
+        // keyset pagination of ride history on (created_at, id)
+        @Index(name = "idx_rides_rider_history", columnList = "rider_id, created_at DESC, id DESC"),
+        @Index(name = "idx_rides_driver_history", columnList = "driver_id, created_at DESC, id DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -54,7 +60,20 @@ public class Ride {
 
     private Double fare;
 
-    private String fareBreakdown;
+    // fare components as quoted by pricing-service; null when the fare was estimated locally
+    private Double baseFare;
+
+    private Double distanceCharge;
+
+    private Double timeCharge;
+
+    private Double surgeMultiplier;
+
+    private Double surgeCharge;
+
+    // free-text breakdown stored before the components existed; read-only, null for newer rides
+    @Column(name = "fare_breakdown", insertable = false, updatable = false)
+    private String legacyFareBreakdown;
 
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
@@ -1,20 +1,114 @@
 package com.ridesharing.rideservice.repository;
 
+import com.ridesharing.rideservice.dto.RideSummaryResponse;
 import com.ridesharing.rideservice.model.Ride;
 import com.ridesharing.rideservice.model.RideStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface RideRepository extends JpaRepository<Ride, Long> {
 
-    List<Ride> findByRiderIdOrderByCreatedAtDesc(Long riderId);
+    // legacy list routes: only the newest page of rides is loaded
+    List<Ride> findByRiderIdOrderByCreatedAtDescIdDesc(Long riderId, Pageable page);
 
-    List<Ride> findByDriverIdOrderByCreatedAtDesc(Long driverId);
+    List<Ride> findByDriverIdOrderByCreatedAtDescIdDesc(Long driverId, Pageable page);
 
     List<Ride> findByStatus(RideStatus status);
 
+    /** Pickup latitude, longitude and vehicle type of every ride in the status, without loading the entities. */
+    @Query("SELECT r.pickupLatitude, r.pickupLongitude, r.vehicleType FROM Ride r WHERE r.status = :status")
+    List<Object[]> findPickupsByStatus(@Param("status") RideStatus status);
+
     List<Ride> findByRiderIdAndStatus(Long riderId, RideStatus status);
+
+    // =================== HISTORY (keyset on created_at, id) ===================
+    // The redundant "createdAt <= :createdAt" keeps the predicate a plain index range scan.
+
+    String SUMMARY = "SELECT new com.ridesharing.rideservice.dto.RideSummaryResponse(" +
+            "r.id, r.riderId, r.driverId, r.status, r.vehicleType, r.pickupAddress, r.dropoffAddress, " +
+            "r.fare, r.paymentStatus, r.createdAt, r.completedAt) FROM Ride r ";
+    String BEFORE_CURSOR = " AND r.createdAt <= :createdAt AND (r.createdAt < :createdAt OR r.id < :id)";
+    String NEWEST_FIRST = " ORDER BY r.createdAt DESC, r.id DESC";
+
+    @Query(SUMMARY + "WHERE r.riderId = :riderId" + NEWEST_FIRST)
+    List<RideSummaryResponse> findRiderHistory(@Param("riderId") Long riderId, Pageable page);
+
+    @Query(SUMMARY + "WHERE r.riderId = :riderId" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<RideSummaryResponse> findRiderHistoryBefore(@Param("riderId") Long riderId,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id, Pageable page);
+
+    @Query(SUMMARY + "WHERE r.driverId = :driverId" + NEWEST_FIRST)
+    List<RideSummaryResponse> findDriverHistory(@Param("driverId") Long driverId, Pageable page);
+
+    @Query(SUMMARY + "WHERE r.driverId = :driverId" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<RideSummaryResponse> findDriverHistoryBefore(@Param("driverId") Long driverId,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id, Pageable page);
+
+    // =================== COMPARE-AND-SET TRANSITIONS ===================
+    // One conditional UPDATE per transition: 0 rows means the ride was not in the expected
+    // status, i.e. a concurrent request won. The persistence context is cleared so a
+    // following findById sees the new row.
+
+    default boolean tryAccept(Long id, Long driverId, LocalDateTime at) {
+        return assignDriverIfStatus(id, driverId, RideStatus.REQUESTED, RideStatus.ACCEPTED, at) == 1;
+    }
+
+    default boolean tryStart(Long id, LocalDateTime at) {
+        return startIfStatus(id, RideStatus.ACCEPTED, RideStatus.IN_PROGRESS, at) == 1;
+    }
+
+    default boolean tryComplete(Long id, LocalDateTime at) {
+        return completeIfStatus(id, RideStatus.IN_PROGRESS, RideStatus.COMPLETED, at) == 1;
+    }
+
+    default boolean tryCancel(Long id, RideStatus expected, String reason, LocalDateTime at) {
+        return cancelIfStatus(id, reason, expected, RideStatus.CANCELLED, at) == 1;
+    }
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ride r SET r.status = :target, r.driverId = :driverId, r.acceptedAt = :at, r.updatedAt = :at " +
+            "WHERE r.id = :id AND r.status = :expected")
+    int assignDriverIfStatus(@Param("id") Long id, @Param("driverId") Long driverId,
+                             @Param("expected") RideStatus expected, @Param("target") RideStatus target,
+                             @Param("at") LocalDateTime at);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ride r SET r.status = :target, r.startedAt = :at, r.updatedAt = :at " +
+            "WHERE r.id = :id AND r.status = :expected")
+    int startIfStatus(@Param("id") Long id, @Param("expected") RideStatus expected,
+                      @Param("target") RideStatus target, @Param("at") LocalDateTime at);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ride r SET r.status = :target, r.completedAt = :at, r.updatedAt = :at " +
+            "WHERE r.id = :id AND r.status = :expected")
+    int completeIfStatus(@Param("id") Long id, @Param("expected") RideStatus expected,
+                         @Param("target") RideStatus target, @Param("at") LocalDateTime at);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ride r SET r.status = :target, r.cancellationReason = :reason, r.cancelledAt = :at, r.updatedAt = :at " +
+            "WHERE r.id = :id AND r.status = :expected")
+    int cancelIfStatus(@Param("id") Long id, @Param("reason") String reason,
+                       @Param("expected") RideStatus expected, @Param("target") RideStatus target,
+                       @Param("at") LocalDateTime at);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Ride r SET r.paymentStatus = :paymentStatus, r.updatedAt = :at WHERE r.id = :id")
+    int updatePaymentStatus(@Param("id") Long id, @Param("paymentStatus") String paymentStatus,
+                            @Param("at") LocalDateTime at);
 }
@@ -0,0 +1,175 @@
+package com.ridesharing.rideservice.service;
+
+import java.util.*;
+
+/**
+ * Min-cost ride-to-driver assignment for a dispatch window.
+ *
+ * Candidate edges are first split into connected components (rides that share no
+ * candidate driver cannot affect each other), so a city-wide window becomes many small
+ * independent problems. Components up to {@code hungarianMaxSize} on either side are
+ * solved optimally with the Hungarian algorithm; larger ones fall back to greedy
+ * nearest-first matching.
+ */
+final class AssignmentSolver {
+
+    private static final double NO_EDGE = 1e9;
+
+    private AssignmentSolver() {
+    }
+
+    record Edge(int ride, int driver, double cost) {
+    }
+
+    static List<Edge> solve(int rideCount, int driverCount, List<Edge> edges, int hungarianMaxSize) {
+        int[] parent = new int[rideCount + driverCount];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (Edge edge : edges) {
+            int a = find(parent, edge.ride());
+            int b = find(parent, rideCount + edge.driver());
+            if (a != b) {
+                parent[a] = b;
+            }
+        }
+
+        Map<Integer, List<Edge>> components = new HashMap<>();
+        for (Edge edge : edges) {
+            components.computeIfAbsent(find(parent, edge.ride()), root -> new ArrayList<>()).add(edge);
+        }
+
+        List<Edge> matched = new ArrayList<>();
+        for (List<Edge> component : components.values()) {
+            matched.addAll(solveComponent(component, hungarianMaxSize));
+        }
+        return matched;
+    }
+
+    private static List<Edge> solveComponent(List<Edge> edges, int hungarianMaxSize) {
+        Map<Integer, Integer> rides = new HashMap<>();
+        Map<Integer, Integer> drivers = new HashMap<>();
+        for (Edge edge : edges) {
+            rides.putIfAbsent(edge.ride(), rides.size());
+            drivers.putIfAbsent(edge.driver(), drivers.size());
+        }
+        if (rides.size() > hungarianMaxSize || drivers.size() > hungarianMaxSize) {
+            return greedy(edges);
+        }
+
+        // the solver needs rows <= columns, so put the smaller side on the rows
+        boolean transpose = rides.size() > drivers.size();
+        int rows = transpose ? drivers.size() : rides.size();
+        int cols = transpose ? rides.size() : drivers.size();
+        double[][] cost = new double[rows][cols];
+        Edge[][] edgeAt = new Edge[rows][cols];
+        for (double[] row : cost) {
+            Arrays.fill(row, NO_EDGE);
+        }
+        for (Edge edge : edges) {
+            int ride = rides.get(edge.ride());
+            int driver = drivers.get(edge.driver());
+            int row = transpose ? driver : ride;
+            int col = transpose ? ride : driver;
+            if (edge.cost() < cost[row][col]) {
+                cost[row][col] = edge.cost();
+                edgeAt[row][col] = edge;
+            }
+        }
+
+        int[] colOfRow = hungarian(cost);
+        List<Edge> matched = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            int col = colOfRow[row];
+            // rows forced onto a non-edge stay unmatched
+            if (col >= 0 && edgeAt[row][col] != null) {
+                matched.add(edgeAt[row][col]);
+            }
+        }
+        return matched;
+    }
+
+    private static List<Edge> greedy(List<Edge> edges) {
+        List<Edge> sorted = new ArrayList<>(edges);
+        sorted.sort(Comparator.comparingDouble(Edge::cost));
+        Set<Integer> matchedRides = new HashSet<>();
+        Set<Integer> matchedDrivers = new HashSet<>();
+        List<Edge> matched = new ArrayList<>();
+        for (Edge edge : sorted) {
+            if (!matchedRides.contains(edge.ride()) && !matchedDrivers.contains(edge.driver())) {
+                matchedRides.add(edge.ride());
+                matchedDrivers.add(edge.driver());
+                matched.add(edge);
+            }
+        }
+        return matched;
+    }
+
+    /** Hungarian algorithm with potentials, O(n²·m) for n rows ≤ m columns; returns each row's column. */
+    private static int[] hungarian(double[][] cost) {
+        int n = cost.length;
+        int m = cost[0].length;
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            p[0] = i;
+            int j0 = 0;
+            double[] minv = new double[m + 1];
+            boolean[] used = new boolean[m + 1];
+            Arrays.fill(minv, Double.MAX_VALUE);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                int j1 = 0;
+                double delta = Double.MAX_VALUE;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double current = cost[i0 - 1][j - 1] - u[i0] - v[j];
+                        if (current < minv[j]) {
+                            minv[j] = current;
+                            way[j] = j0;
+                        }
+                        if (minv[j] < delta) {
+                            delta = minv[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] colOfRow = new int[n];
+        Arrays.fill(colOfRow, -1);
+        for (int j = 1; j <= m; j++) {
+            if (p[j] != 0) {
+                colOfRow[p[j] - 1] = j - 1;
+            }
+        }
+        return colOfRow;
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ridesharing.rideservice.service;
+
+import com.ridesharing.rideservice.dto.HeatmapCellResponse;
+import com.ridesharing.rideservice.dto.HeatmapResponse;
+import com.ridesharing.rideservice.model.Ride;
+import com.ridesharing.rideservice.model.RideStatus;
+import com.ridesharing.rideservice.repository.RideRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Open ride requests per (pickup cell, vehicle type) — incremented when a ride is booked
+ * and decremented when it leaves REQUESTED, so the snapshot is O(cells) and never queries
+ * the rides table. Uses the same grid as driver-location-service's supply heatmap, so the
+ * two can be joined cell by cell.
+ *
+ * The counters are per instance and only see the bookings and transitions this instance
+ * handled, so with several replicas they are rebuilt from the REQUESTED rides in the shared
+ * database every {@code ride.heatmap.reconcile-interval-ms} (and at startup). Between
+ * rebuilds each replica may be off by the requests the others opened or closed in that
+ * interval; the rebuild also drops any drift from lost or duplicated updates.
+ */
+@Component
+@Slf4j
+public class DemandHeatmap {
+
+    private final RideRepository rideRepository;
+    private final double cellSizeDegrees;
+    private volatile Map<Zone, Integer> counts = new ConcurrentHashMap<>();
+
+    public DemandHeatmap(RideRepository rideRepository,
+                         @Value("${ride.heatmap.cell-size-degrees:0.02}") double cellSizeDegrees) {
+        this.rideRepository = rideRepository;
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    @PostConstruct
+    public void seed() {
+        log.info("Demand heatmap seeded with {} open ride requests", reconcile());
+    }
+
+    @Scheduled(initialDelayString = "${ride.heatmap.reconcile-interval-ms:10000}",
+            fixedDelayString = "${ride.heatmap.reconcile-interval-ms:10000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /** Replaces the counters with a count of the REQUESTED rides; returns that count. */
+    int reconcile() {
+        Map<Zone, Integer> rebuilt = new ConcurrentHashMap<>();
+        List<Object[]> pickups = rideRepository.findPickupsByStatus(RideStatus.REQUESTED);
+        for (Object[] pickup : pickups) {
+            rebuilt.merge(zoneOf((Double) pickup[0], (Double) pickup[1], (String) pickup[2]), 1, Integer::sum);
+        }
+        counts = rebuilt;
+        return pickups.size();
+    }
+
+    public void requestOpened(Ride ride) {
+        counts.merge(zoneOf(ride), 1, Integer::sum);
+    }
+
+    public void requestClosed(Ride ride) {
+        // a request opened on another replica is absent here; never record it as negative
+        counts.computeIfPresent(zoneOf(ride), (zone, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public HeatmapResponse snapshot() {
+        List<HeatmapCellResponse> cells = new ArrayList<>(counts.size());
+        counts.forEach((zone, count) -> cells.add(HeatmapCellResponse.builder()
+                .row(zone.row())
+                .col(zone.col())
+                .vehicleType(zone.vehicleType())
+                .count(count)
+                .build()));
+        return HeatmapResponse.builder()
+                .cellSizeDegrees(cellSizeDegrees)
+                .generatedAt(LocalDateTime.now())
+                .cells(cells)
+                .build();
+    }
+
+    private Zone zoneOf(Ride ride) {
+        return zoneOf(ride.getPickupLatitude(), ride.getPickupLongitude(), ride.getVehicleType());
+    }
+
+    private Zone zoneOf(double latitude, double longitude, String vehicleType) {
+        return new Zone(
+                (int) Math.floor((latitude + 90.0) / cellSizeDegrees),
+                (int) Math.floor((longitude + 180.0) / cellSizeDegrees),
+                vehicleType);
+    }
+
+    private record Zone(int row, int col, String vehicleType) {
+    }
+}
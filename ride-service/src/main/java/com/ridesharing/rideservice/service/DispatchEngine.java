@@ -0,0 +1,239 @@
+package com.ridesharing.rideservice.service;
+
+import com.ridesharing.rideservice.dto.BatchNearbyRequest;
+import com.ridesharing.rideservice.dto.BatchNearbyResponse;
+import com.ridesharing.rideservice.dto.NearbyDriverResponse;
+import com.ridesharing.rideservice.dto.NearbyQuery;
+import com.ridesharing.rideservice.event.RideEventPublisher;
+import com.ridesharing.rideservice.event.RideOffer;
+import com.ridesharing.rideservice.event.RideOffersEvent;
+import com.ridesharing.rideservice.model.Ride;
+import com.ridesharing.rideservice.model.RideStatus;
+import com.ridesharing.rideservice.repository.RideRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BATCH DISPATCH — every window collects the REQUESTED rides without a live offer, fetches
+ * candidate drivers for all of them in one batch call to driver-location-service, solves
+ * the assignment for minimum total pickup distance and publishes every offer of the
+ * window as one {@code ride.offered} message.
+ *
+ * An offer holds its driver until the ride is accepted or cancelled, or the offer expires;
+ * a driver whose offer expired is not offered the same ride again. Offer state is local
+ * to this instance, so only the replica holding the {@link DispatchLeadership} lock runs
+ * windows. Accepts and cancels may be handled by another replica, so each window also
+ * drops the state of rides that are no longer REQUESTED.
+ */
+@Component
+@Slf4j
+public class DispatchEngine {
+
+    private static final String NEARBY_BATCH_URL = "http://driver-location-service/locations/nearby/batch";
+    private static final int MAX_QUERIES_PER_CALL = 5000;
+    // driver-location-service's VehicleType; one unknown value would fail the whole batch
+    private static final Set<String> VEHICLE_TYPES = Set.of("AUTO", "MINI", "SEDAN", "SUV", "PREMIUM");
+
+    private final RideRepository rideRepository;
+    private final RestTemplate restTemplate;
+    private final RideEventPublisher eventPublisher;
+    private final DispatchLeadership leadership;
+    private final boolean enabled;
+    private final double searchRadiusKm;
+    private final long offerTtlMillis;
+    private final int hungarianMaxSize;
+
+    // rideId -> live offer
+    private final Map<Long, PendingOffer> pendingOffers = new ConcurrentHashMap<>();
+    // rideId -> drivers who let an offer for it expire
+    private final Map<Long, Set<Long>> declinedDrivers = new ConcurrentHashMap<>();
+
+    public DispatchEngine(RideRepository rideRepository,
+                          RestTemplate restTemplate,
+                          RideEventPublisher eventPublisher,
+                          DispatchLeadership leadership,
+                          @Value("${ride.dispatch.enabled:true}") boolean enabled,
+                          @Value("${ride.dispatch.search-radius-km:3.0}") double searchRadiusKm,
+                          @Value("${ride.dispatch.offer-ttl:15s}") Duration offerTtl,
+                          @Value("${ride.dispatch.hungarian-max-size:200}") int hungarianMaxSize) {
+        this.rideRepository = rideRepository;
+        this.restTemplate = restTemplate;
+        this.eventPublisher = eventPublisher;
+        this.leadership = leadership;
+        this.enabled = enabled;
+        this.searchRadiusKm = searchRadiusKm;
+        this.offerTtlMillis = offerTtl.toMillis();
+        this.hungarianMaxSize = hungarianMaxSize;
+    }
+
+    /** Called when a ride leaves REQUESTED, releasing its offered driver. */
+    public void offerResolved(Long rideId) {
+        pendingOffers.remove(rideId);
+        declinedDrivers.remove(rideId);
+    }
+
+    @Scheduled(fixedDelayString = "${ride.dispatch.window-ms:2000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        if (!leadership.isLeader()) {
+            // another replica dispatches; offers made while this one led are its to resolve now
+            pendingOffers.clear();
+            declinedDrivers.clear();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        expireOffers(now);
+
+        List<Ride> requested = rideRepository.findByStatus(RideStatus.REQUESTED);
+        Set<Long> requestedIds = new HashSet<>();
+        requested.forEach(ride -> requestedIds.add(ride.getId()));
+        pendingOffers.keySet().retainAll(requestedIds);
+        declinedDrivers.keySet().retainAll(requestedIds);
+
+        List<Ride> openRides = requested.stream()
+                .filter(ride -> !pendingOffers.containsKey(ride.getId()))
+                .toList();
+        if (openRides.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<NearbyDriverResponse>> candidates = fetchCandidates(openRides);
+        if (candidates == null) {
+            return;
+        }
+
+        // index drivers that are free this window, and build ride -> driver edges
+        Set<Long> offeredDrivers = new HashSet<>();
+        pendingOffers.values().forEach(offer -> offeredDrivers.add(offer.driverId()));
+        Map<Long, Integer> driverIndex = new HashMap<>();
+        List<Long> driverIds = new ArrayList<>();
+        List<AssignmentSolver.Edge> edges = new ArrayList<>();
+        for (int i = 0; i < openRides.size(); i++) {
+            Ride ride = openRides.get(i);
+            Set<Long> declined = declinedDrivers.getOrDefault(ride.getId(), Set.of());
+            for (NearbyDriverResponse driver : candidates.getOrDefault(ride.getId(), List.of())) {
+                if (offeredDrivers.contains(driver.getDriverId()) || declined.contains(driver.getDriverId())) {
+                    continue;
+                }
+                int j = driverIndex.computeIfAbsent(driver.getDriverId(), id -> {
+                    driverIds.add(id);
+                    return driverIds.size() - 1;
+                });
+                edges.add(new AssignmentSolver.Edge(i, j, driver.getDistanceInKm()));
+            }
+        }
+
+        List<AssignmentSolver.Edge> assignment =
+                AssignmentSolver.solve(openRides.size(), driverIds.size(), edges, hungarianMaxSize);
+        if (assignment.isEmpty()) {
+            log.debug("Dispatch window: {} open rides, no free drivers in range", openRides.size());
+            return;
+        }
+
+        long expiresAt = now + offerTtlMillis;
+        LocalDateTime expiresAtTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), ZoneId.systemDefault());
+        List<RideOffer> offers = new ArrayList<>(assignment.size());
+        double totalPickupKm = 0;
+        for (AssignmentSolver.Edge edge : assignment) {
+            Ride ride = openRides.get(edge.ride());
+            Long driverId = driverIds.get(edge.driver());
+            pendingOffers.put(ride.getId(), new PendingOffer(driverId, expiresAt));
+            totalPickupKm += edge.cost();
+            offers.add(RideOffer.builder()
+                    .rideId(ride.getId())
+                    .driverId(driverId)
+                    .riderId(ride.getRiderId())
+                    .pickupLatitude(ride.getPickupLatitude())
+                    .pickupLongitude(ride.getPickupLongitude())
+                    .pickupAddress(ride.getPickupAddress())
+                    .pickupDistanceInKm(edge.cost())
+                    .fare(ride.getFare())
+                    .expiresAt(expiresAtTime)
+                    .build());
+        }
+
+        eventPublisher.publishRideOffers(RideOffersEvent.builder()
+                .offers(offers)
+                .timestamp(LocalDateTime.now())
+                .build());
+        log.info("Dispatch window: {} open rides, {} candidate drivers, {} offers, {} km total pickup",
+                openRides.size(), driverIds.size(), offers.size(), Math.round(totalPickupKm * 100.0) / 100.0);
+    }
+
+    private void expireOffers(long now) {
+        pendingOffers.entrySet().removeIf(entry -> {
+            if (entry.getValue().expiresAtMillis() > now) {
+                return false;
+            }
+            declinedDrivers.computeIfAbsent(entry.getKey(), id -> ConcurrentHashMap.newKeySet())
+                    .add(entry.getValue().driverId());
+            return true;
+        });
+    }
+
+    /**
+     * Candidates per ride id, or null if driver-location-service could not be reached. Rides
+     * whose query driver-location-service would reject are left out (and get no candidates)
+     * rather than failing the batch for every other ride.
+     */
+    private Map<Long, List<NearbyDriverResponse>> fetchCandidates(List<Ride> rides) {
+        List<NearbyQuery> allQueries = new ArrayList<>(rides.size());
+        List<Long> skipped = new ArrayList<>();
+        for (Ride ride : rides) {
+            String vehicleType = ride.getVehicleType() != null ? ride.getVehicleType().toUpperCase(Locale.ROOT) : null;
+            if (ride.getPickupLatitude() == null || ride.getPickupLongitude() == null
+                    || (vehicleType != null && !VEHICLE_TYPES.contains(vehicleType))) {
+                skipped.add(ride.getId());
+                continue;
+            }
+            allQueries.add(NearbyQuery.builder()
+                    .queryId(ride.getId())
+                    .latitude(ride.getPickupLatitude())
+                    .longitude(ride.getPickupLongitude())
+                    .radiusInKm(searchRadiusKm)
+                    .vehicleType(vehicleType)
+                    .build());
+        }
+        if (!skipped.isEmpty()) {
+            log.warn("Dispatch window: {} rides cannot be dispatched (unknown vehicle type or no pickup): {}",
+                    skipped.size(), skipped);
+        }
+
+        Map<Long, List<NearbyDriverResponse>> candidates = new HashMap<>();
+        for (int from = 0; from < allQueries.size(); from += MAX_QUERIES_PER_CALL) {
+            List<NearbyQuery> queries = allQueries.subList(from, Math.min(from + MAX_QUERIES_PER_CALL, allQueries.size()));
+            try {
+                BatchNearbyResponse[] results = restTemplate.postForObject(
+                        NEARBY_BATCH_URL,
+                        BatchNearbyRequest.builder().queries(queries).build(),
+                        BatchNearbyResponse[].class
+                );
+                if (results != null) {
+                    for (BatchNearbyResponse result : results) {
+                        candidates.put(result.getQueryId(), result.getDrivers());
+                    }
+                }
+            } catch (RestClientException ex) {
+                log.warn("Dispatch window skipped, candidate lookup failed: {}", ex.getMessage());
+                return null;
+            }
+        }
+        return candidates;
+    }
+
+    private record PendingOffer(Long driverId, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.ridesharing.rideservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Elects the single replica that runs dispatch windows, using a Postgres session-level
+ * advisory lock. The leader keeps the connection that took the lock for as long as it
+ * stays valid; if the leader dies or its connection drops, Postgres releases the lock
+ * and the next replica to try takes over. The connection is held out of the pool for
+ * the whole leadership, so the pool needs one connection to spare on the leader.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchLeadership {
+
+    // arbitrary application-wide key for pg_try_advisory_lock
+    private static final long DISPATCH_LOCK_KEY = 7_301_146_281_001L;
+
+    private final DataSource dataSource;
+
+    // held only while this instance is the leader
+    private Connection lockConnection;
+
+    /** Whether this instance holds the dispatch lock, trying to take it if not. */
+    public synchronized boolean isLeader() {
+        if (lockConnection != null) {
+            if (isValid(lockConnection)) {
+                return true;
+            }
+            log.warn("Dispatch lock connection lost, giving up dispatch leadership");
+            release();
+        }
+
+        Connection candidate = null;
+        try {
+            candidate = dataSource.getConnection();
+            try (PreparedStatement statement = candidate.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setLong(1, DISPATCH_LOCK_KEY);
+                try (ResultSet result = statement.executeQuery()) {
+                    if (result.next() && result.getBoolean(1)) {
+                        lockConnection = candidate;
+                        log.info("Acquired dispatch leadership");
+                        return true;
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            log.warn("Could not try the dispatch lock: {}", ex.getMessage());
+        }
+        close(candidate);
+        return false;
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (lockConnection == null) {
+            return;
+        }
+        // a pooled connection outlives close(), so the session lock must be released explicitly
+        try (PreparedStatement statement = lockConnection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, DISPATCH_LOCK_KEY);
+            statement.execute();
+        } catch (SQLException ex) {
+            log.debug("Releasing the dispatch lock failed: {}", ex.getMessage());
+        }
+        close(lockConnection);
+        lockConnection = null;
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(1);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private static void close(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            log.debug("Closing dispatch lock connection failed: {}", ex.getMessage());
+        }
+    }
+}
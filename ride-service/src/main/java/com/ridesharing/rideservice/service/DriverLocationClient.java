@@ -0,0 +1,41 @@
+package com.ridesharing.rideservice.service;
+
+import com.ridesharing.rideservice.model.Ride;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Takes an accepted driver out of the available pool. Called only after the accept has
+ * won its compare-and-set, so a failure here never undoes or duplicates an assignment.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DriverLocationClient {
+
+    private final RestTemplate restTemplate;
+
+    @CircuitBreaker(name = "driverLocationService", fallbackMethod = "markUnavailableFallback")
+    @Bulkhead(name = "driverLocationService")
+    public void markUnavailable(Long driverId, Ride ride) {
+        // INTER-SERVICE CALL → Driver Location Service (via Eureka)
+        restTemplate.postForObject(
+                "http://driver-location-service/locations/update",
+                // no vehicleType — the driver keeps its own type, which may differ from the ride's
+                Map.of("driverId", driverId, "latitude", ride.getPickupLatitude(),
+                        "longitude", ride.getPickupLongitude(), "isAvailable", false),
+                String.class
+        );
+    }
+
+    // =================== CIRCUIT BREAKER FALLBACK ===================
+    public void markUnavailableFallback(Long driverId, Ride ride, Throwable throwable) {
+        log.warn("Circuit Breaker OPEN for driver location service. Accepting without location update. Error: {}", throwable.getMessage());
+    }
+}
@@ -0,0 +1,28 @@
+package com.ridesharing.rideservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in a newest-first ride history — the (createdAt, id) of the last row a
+ * page returned. The next page holds the rows strictly below it in (createdAt, id) order,
+ * so rides sharing a createdAt are split by id and never skipped or repeated.
+ * Encoded as opaque base64url("<createdAt ISO>|<id>").
+ */
+record HistoryCursor(LocalDateTime createdAt, long id) {
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new HistoryCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid history cursor");
+        }
+    }
+}
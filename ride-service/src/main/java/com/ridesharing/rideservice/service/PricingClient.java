@@ -0,0 +1,75 @@
+package com.ridesharing.rideservice.service;
+
+import com.ridesharing.rideservice.dto.FareQuote;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Remote pricing — only used when a booking arrives without a valid quote token.
+ * Guarded by the pricingService circuit breaker and bulkhead; falls back to a flat
+ * per-km estimate while pricing-service is unavailable. A 4xx means the request itself
+ * was rejected, so it is passed on to the caller instead of being booked at the flat rate.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PricingClient {
+
+    private static final double FALLBACK_RATE_PER_KM = 12.0;
+
+    private final RestTemplate restTemplate;
+
+    @CircuitBreaker(name = "pricingService", fallbackMethod = "quoteFallback")
+    @Bulkhead(name = "pricingService")
+    public FareQuote quote(String vehicleType, double distanceInKm, double durationMinutes,
+                           double pickupLatitude, double pickupLongitude) {
+        // INTER-SERVICE CALL → Pricing Service (via Eureka)
+        Map<String, Object> pricingRequest = Map.of(
+                "distanceInKm", distanceInKm,
+                "estimatedDurationMinutes", durationMinutes,
+                "vehicleType", vehicleType,
+                "pickupLatitude", pickupLatitude,
+                "pickupLongitude", pickupLongitude
+        );
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> pricingResponse = restTemplate.postForObject(
+                "http://pricing-service/pricing/calculate",
+                pricingRequest,
+                Map.class
+        );
+
+        return FareQuote.builder()
+                .totalFare(pricingResponse != null ? fareComponent(pricingResponse, "totalFare") : 0.0)
+                .baseFare(fareComponent(pricingResponse, "baseFare"))
+                .distanceCharge(fareComponent(pricingResponse, "distanceCharge"))
+                .timeCharge(fareComponent(pricingResponse, "timeCharge"))
+                .surgeMultiplier(fareComponent(pricingResponse, "surgeMultiplier"))
+                .surgeCharge(fareComponent(pricingResponse, "surgeCharge"))
+                .build();
+    }
+
+    // =================== CIRCUIT BREAKER FALLBACK ===================
+    public FareQuote quoteFallback(String vehicleType, double distanceInKm, double durationMinutes,
+                                   double pickupLatitude, double pickupLongitude, Throwable throwable) {
+        if (throwable instanceof HttpClientErrorException rejected) {
+            throw rejected;
+        }
+        log.warn("Circuit Breaker OPEN for pricing service. Booking with estimated fare. Error: {}", throwable.getMessage());
+        return FareQuote.builder()
+                .totalFare(distanceInKm * FALLBACK_RATE_PER_KM)
+                .build();
+    }
+
+    private static Double fareComponent(Map<String, Object> pricingResponse, String name) {
+        Object value = pricingResponse != null ? pricingResponse.get(name) : null;
+        return value instanceof Number number ? number.doubleValue() : null;
+    }
+}
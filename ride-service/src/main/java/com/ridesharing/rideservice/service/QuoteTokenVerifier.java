@@ -0,0 +1,121 @@
+package com.ridesharing.rideservice.service;
+
+import com.ridesharing.rideservice.dto.FareQuote;
+import com.ridesharing.rideservice.dto.RideBookingRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Verifies quote tokens issued by pricing-service's QuoteTokenSigner with the shared
+ * secret — signature, expiry, vehicle type, and pickup/distance within tolerance of the
+ * booking — so a valid quote is honoured without a second pricing call.
+ */
+@Component
+@Slf4j
+public class QuoteTokenVerifier {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v1";
+    private static final int FIELD_COUNT = 13;
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final double distanceToleranceKm;
+    // Mac instances are not thread-safe
+    private final ThreadLocal<Mac> macs;
+
+    public QuoteTokenVerifier(@Value("${ride.quote.secret}") String secret,
+                              @Value("${ride.quote.distance-tolerance-km:0.5}") double distanceToleranceKm) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("ride.quote.secret is not set (PRICING_QUOTE_SECRET)");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.distanceToleranceKm = distanceToleranceKm;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * The quoted fare if the token is authentic, unexpired and matches this booking;
+     * empty otherwise, in which case the caller re-prices.
+     */
+    public Optional<FareQuote> verify(RideBookingRequest request, double distanceInKm) {
+        String token = request.getQuoteToken();
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            int separator = token.indexOf('.');
+            if (separator < 0) {
+                return rejected(request, "malformed");
+            }
+            byte[] payload = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(macs.get().doFinal(payload), signature)) {
+                return rejected(request, "bad signature");
+            }
+
+            String[] fields = new String(payload, StandardCharsets.UTF_8).split("\\|", -1);
+            if (fields.length != FIELD_COUNT || !VERSION.equals(fields[0])) {
+                return rejected(request, "unknown format");
+            }
+            if (Long.parseLong(fields[12]) < System.currentTimeMillis()) {
+                return rejected(request, "expired");
+            }
+            if (!fields[1].equals(request.getVehicleType())) {
+                return rejected(request, "vehicle type mismatch");
+            }
+            // zone surge depends on the pickup, so a quote without one cannot be trusted for it
+            if (fields[2].isEmpty() || fields[3].isEmpty() || pickupOffsetKm(request,
+                    Double.parseDouble(fields[2]), Double.parseDouble(fields[3])) > distanceToleranceKm) {
+                return rejected(request, "pickup mismatch");
+            }
+            if (Math.abs(Double.parseDouble(fields[4]) - distanceInKm) > distanceToleranceKm) {
+                return rejected(request, "distance mismatch");
+            }
+
+            return Optional.of(FareQuote.builder()
+                    .totalFare(Double.parseDouble(fields[6]))
+                    .baseFare(Double.parseDouble(fields[7]))
+                    .distanceCharge(Double.parseDouble(fields[8]))
+                    .timeCharge(Double.parseDouble(fields[9]))
+                    .surgeMultiplier(Double.parseDouble(fields[10]))
+                    .surgeCharge(Double.parseDouble(fields[11]))
+                    .build());
+        } catch (IllegalArgumentException ex) {
+            return rejected(request, "malformed");
+        }
+    }
+
+    // equirectangular approximation — plenty for sub-kilometre tolerances
+    private static double pickupOffsetKm(RideBookingRequest request, double quotedLatitude, double quotedLongitude) {
+        double dLat = request.getPickupLatitude() - quotedLatitude;
+        double dLng = (request.getPickupLongitude() - quotedLongitude)
+                * Math.cos(Math.toRadians(request.getPickupLatitude()));
+        return KM_PER_DEGREE * Math.sqrt(dLat * dLat + dLng * dLng);
+    }
+
+    private Optional<FareQuote> rejected(RideBookingRequest request, String reason) {
+        log.info("Quote token for rider {} rejected ({}), re-pricing", request.getRiderId(), reason);
+        return Optional.empty();
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot initialise quote token verifier", ex);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ridesharing.rideservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ridesharing.rideservice.dto.RideResponse;
+import com.ridesharing.rideservice.event.RideCacheInvalidationEvent;
+import com.ridesharing.rideservice.event.RideEventPublisher;
+import com.ridesharing.rideservice.model.RideStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * READ-THROUGH CACHE — RideResponse of active rides, so trip polling of GET /rides/{id}
+ * is served from memory. Completed and cancelled rides are not kept.
+ *
+ * Every transition drops the entry here once its transaction commits and broadcasts the
+ * ride id on the ride.cache fanout so other replicas drop theirs; the next read reloads
+ * it. The TTL bounds staleness if a broadcast is lost. Callers get copies, since
+ * responses are mutated after lookup. Metrics are published as {@code cache.*{cache=rides}}.
+ */
+@Component
+@Slf4j
+public class RideCache {
+
+    private static final Set<RideStatus> ACTIVE =
+            EnumSet.of(RideStatus.REQUESTED, RideStatus.ACCEPTED, RideStatus.DRIVER_EN_ROUTE, RideStatus.IN_PROGRESS);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final RideEventPublisher eventPublisher;
+    private final Cache<Long, RideResponse> cache;
+
+    public RideCache(MeterRegistry meterRegistry,
+                     RideEventPublisher eventPublisher,
+                     @Value("${ride.cache.ttl:30s}") Duration ttl,
+                     @Value("${ride.cache.max-size:50000}") long maxSize) {
+        this.eventPublisher = eventPublisher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "rides");
+    }
+
+    public RideResponse get(Long rideId, Supplier<RideResponse> loader) {
+        // loading through the cache lets a concurrent invalidate discard an in-flight load
+        RideResponse response = cache.get(rideId, id -> loader.get());
+        if (!ACTIVE.contains(response.getStatus())) {
+            cache.asMap().remove(rideId, response);
+        }
+        return response.toBuilder().build();
+    }
+
+    /** A freshly booked ride — no other replica can hold it yet. */
+    public void put(RideResponse response) {
+        cache.put(response.getId(), response.toBuilder().build());
+    }
+
+    /** Call on every state transition; takes effect after the surrounding transaction commits. */
+    public void transitioned(Long rideId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(rideId);
+                }
+            });
+        } else {
+            invalidate(rideId);
+        }
+    }
+
+    /** Invalidation from another replica. */
+    public void evict(RideCacheInvalidationEvent event) {
+        if (!instanceId.equals(event.getOriginInstanceId())) {
+            cache.invalidate(event.getRideId());
+        }
+    }
+
+    private void invalidate(Long rideId) {
+        cache.invalidate(rideId);
+        try {
+            eventPublisher.publishCacheInvalidation(RideCacheInvalidationEvent.builder()
+                    .rideId(rideId)
+                    .originInstanceId(instanceId)
+                    .changedAt(LocalDateTime.now())
+                    .build());
+        } catch (AmqpException e) {
+            // other replicas fall back to the TTL
+            log.warn("Failed to broadcast cache invalidation for ride {}: {}", rideId, e.getMessage());
+        }
+    }
+}
@@ -6,16 +6,16 @@ import com.ridesharing.rideservice.event.RideEventPublisher;
 import com.ridesharing.rideservice.model.Ride;
 import com.ridesharing.rideservice.model.RideStatus;
 import com.ridesharing.rideservice.repository.RideRepository;
-import io.github.resilience4j.bulkhead.annotation.Bulkhead;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -23,12 +23,18 @@ import java.util.Map;
 public class RideService {
 
     private final RideRepository rideRepository;
-    private final RestTemplate restTemplate;
     private final RideEventPublisher eventPublisher;
+    private final DemandHeatmap demandHeatmap;
+    private final QuoteTokenVerifier quoteTokenVerifier;
+    private final PricingClient pricingClient;
+    private final DriverLocationClient driverLocationClient;
+    private final RideCache rideCache;
+    private final DispatchEngine dispatchEngine;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     // =================== BOOK A RIDE ===================
-    @CircuitBreaker(name = "pricingService", fallbackMethod = "bookRideFallback")
-    @Bulkhead(name = "pricingService")
     public RideResponse bookRide(RideBookingRequest request) {
         double distanceInKm = calculateDistance(
                 request.getPickupLatitude(), request.getPickupLongitude(),
@@ -36,24 +42,12 @@ public class RideService {
         );
         double durationMinutes = estimateDuration(distanceInKm);
 
-        // INTER-SERVICE CALL → Pricing Service (via Eureka)
-        Map<String, Object> pricingRequest = Map.of(
-                "distanceInKm", distanceInKm,
-                "estimatedDurationMinutes", durationMinutes,
-                "vehicleType", request.getVehicleType()
-        );
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> pricingResponse = restTemplate.postForObject(
-                "http://pricing-service/pricing/calculate",
-                pricingRequest,
-                Map.class
-        );
-
-        Double fare = pricingResponse != null ? ((Number) pricingResponse.get("totalFare")).doubleValue() : 0.0;
-        String fareBreakdown = pricingResponse != null ? (String) pricingResponse.get("fareBreakdown") : "N/A";
+        // A valid quote token carries the fare, so the pricing call is only made without one
+        FareQuote quote = quoteTokenVerifier.verify(request, distanceInKm)
+                .orElseGet(() -> pricingClient.quote(request.getVehicleType(), distanceInKm, durationMinutes,
+                        request.getPickupLatitude(), request.getPickupLongitude()));
 
-        Ride ride = Ride.builder()
+        Ride newRide = Ride.builder()
                 .riderId(request.getRiderId())
                 .pickupLatitude(request.getPickupLatitude())
                 .pickupLongitude(request.getPickupLongitude())
@@ -64,125 +58,68 @@ public class RideService {
                 .vehicleType(request.getVehicleType())
                 .distanceInKm(distanceInKm)
                 .estimatedDurationMinutes(durationMinutes)
-                .fare(fare)
-                .fareBreakdown(fareBreakdown)
-                .status(RideStatus.REQUESTED)
-                .build();
-
-        ride = rideRepository.save(ride);
-
-        // Publish event to RabbitMQ
-        eventPublisher.publishRideBooked(buildEvent(ride));
-
-        log.info("Ride {} booked by rider {} — fare: ₹{}", ride.getId(), ride.getRiderId(), fare);
-        return mapToResponse(ride);
-    }
-
-    // =================== CIRCUIT BREAKER FALLBACK ===================
-    public RideResponse bookRideFallback(RideBookingRequest request, Throwable throwable) {
-        log.warn("Circuit Breaker OPEN for pricing service. Booking with estimated fare. Error: {}", throwable.getMessage());
-
-        double distanceInKm = calculateDistance(
-                request.getPickupLatitude(), request.getPickupLongitude(),
-                request.getDropoffLatitude(), request.getDropoffLongitude()
-        );
-        double estimatedFare = distanceInKm * 12.0;
-
-        Ride ride = Ride.builder()
-                .riderId(request.getRiderId())
-                .pickupLatitude(request.getPickupLatitude())
-                .pickupLongitude(request.getPickupLongitude())
-                .dropoffLatitude(request.getDropoffLatitude())
-                .dropoffLongitude(request.getDropoffLongitude())
-                .pickupAddress(request.getPickupAddress())
-                .dropoffAddress(request.getDropoffAddress())
-                .vehicleType(request.getVehicleType())
-                .distanceInKm(distanceInKm)
-                .estimatedDurationMinutes(estimateDuration(distanceInKm))
-                .fare(estimatedFare)
-                .fareBreakdown("Estimated fare (pricing service unavailable): ₹" + estimatedFare)
+                .fare(quote.getTotalFare())
+                .baseFare(quote.getBaseFare())
+                .distanceCharge(quote.getDistanceCharge())
+                .timeCharge(quote.getTimeCharge())
+                .surgeMultiplier(quote.getSurgeMultiplier())
+                .surgeCharge(quote.getSurgeCharge())
                 .status(RideStatus.REQUESTED)
                 .build();
 
-        ride = rideRepository.save(ride);
-        eventPublisher.publishRideBooked(buildEvent(ride));
-
-        return mapToResponse(ride);
+        // Ride row and its outbox event commit together; the pricing call above stays outside
+        Ride ride = transactionTemplate.execute(status -> {
+            Ride saved = rideRepository.save(newRide);
+            eventPublisher.publishRideBooked(buildEvent(saved));
+            return saved;
+        });
+        demandHeatmap.requestOpened(ride);
+
+        log.info("Ride {} booked by rider {} — fare: ₹{}", ride.getId(), ride.getRiderId(), ride.getFare());
+        RideResponse response = mapToResponse(ride);
+        rideCache.put(response);
+        return response;
     }
 
     // =================== ACCEPT RIDE (Driver) ===================
-    @CircuitBreaker(name = "driverLocationService", fallbackMethod = "acceptRideFallback")
-    @Bulkhead(name = "driverLocationService")
     public RideResponse acceptRide(Long rideId, Long driverId) {
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Ride not found: " + rideId));
-
-        if (ride.getStatus() != RideStatus.REQUESTED) {
-            throw new RuntimeException("Ride cannot be accepted. Current status: " + ride.getStatus());
+        // Compare-and-set first: exactly one concurrent accept wins, before any remote call
+        if (!rideRepository.tryAccept(rideId, driverId, LocalDateTime.now())) {
+            throw transitionRejected(rideId, "accepted");
         }
+        rideCache.transitioned(rideId);
+        Ride ride = findRide(rideId);
+        demandHeatmap.requestClosed(ride);
+        dispatchEngine.offerResolved(rideId);
 
-        // INTER-SERVICE CALL → Driver Location Service (via Eureka)
-        restTemplate.postForObject(
-                "http://driver-location-service/locations/update",
-                Map.of("driverId", driverId, "latitude", ride.getPickupLatitude(),
-                        "longitude", ride.getPickupLongitude(), "isAvailable", false),
-                String.class
-        );
-
-        ride.setDriverId(driverId);
-        ride.setStatus(RideStatus.ACCEPTED);
-        ride.setAcceptedAt(LocalDateTime.now());
-        ride = rideRepository.save(ride);
+        driverLocationClient.markUnavailable(driverId, ride);
 
         log.info("Ride {} accepted by driver {}", rideId, driverId);
         return mapToResponse(ride);
     }
 
-    public RideResponse acceptRideFallback(Long rideId, Long driverId, Throwable throwable) {
-        log.warn("Circuit Breaker OPEN for driver location service. Accepting without location update. Error: {}", throwable.getMessage());
-
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Ride not found: " + rideId));
-
-        ride.setDriverId(driverId);
-        ride.setStatus(RideStatus.ACCEPTED);
-        ride.setAcceptedAt(LocalDateTime.now());
-        ride = rideRepository.save(ride);
-
-        return mapToResponse(ride);
-    }
-
     // =================== START RIDE ===================
     public RideResponse startRide(Long rideId) {
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Ride not found: " + rideId));
-
-        if (ride.getStatus() != RideStatus.ACCEPTED) {
-            throw new RuntimeException("Ride cannot be started. Current status: " + ride.getStatus());
+        if (!rideRepository.tryStart(rideId, LocalDateTime.now())) {
+            throw transitionRejected(rideId, "started");
         }
-
-        ride.setStatus(RideStatus.IN_PROGRESS);
-        ride.setStartedAt(LocalDateTime.now());
-        ride = rideRepository.save(ride);
+        rideCache.transitioned(rideId);
+        Ride ride = findRide(rideId);
 
         log.info("Ride {} started", rideId);
         return mapToResponse(ride);
     }
 
     // =================== COMPLETE RIDE ===================
+    @Transactional
     public RideResponse completeRide(Long rideId) {
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Ride not found: " + rideId));
-
-        if (ride.getStatus() != RideStatus.IN_PROGRESS) {
-            throw new RuntimeException("Ride cannot be completed. Current status: " + ride.getStatus());
+        if (!rideRepository.tryComplete(rideId, LocalDateTime.now())) {
+            throw transitionRejected(rideId, "completed");
         }
+        rideCache.transitioned(rideId);
+        Ride ride = findRide(rideId);
 
-        ride.setStatus(RideStatus.COMPLETED);
-        ride.setCompletedAt(LocalDateTime.now());
-        ride = rideRepository.save(ride);
-
-        // Publish event → Payment & Notification services will consume
+        // Outbox event → Payment & Notification services will consume once relayed
         eventPublisher.publishRideCompleted(buildEvent(ride));
 
         log.info("Ride {} completed. Fare: ₹{}", rideId, ride.getFare());
@@ -190,18 +127,24 @@ public class RideService {
     }
 
     // =================== CANCEL RIDE ===================
+    @Transactional
     public RideResponse cancelRide(Long rideId, String reason) {
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Ride not found: " + rideId));
+        Ride ride = findRide(rideId);
 
-        if (ride.getStatus() == RideStatus.COMPLETED || ride.getStatus() == RideStatus.CANCELLED) {
-            throw new RuntimeException("Ride cannot be cancelled. Current status: " + ride.getStatus());
+        RideStatus previousStatus = ride.getStatus();
+        if (previousStatus == RideStatus.COMPLETED || previousStatus == RideStatus.CANCELLED) {
+            throw new RuntimeException("Ride cannot be cancelled. Current status: " + previousStatus);
+        }
+        // only cancels from the status we just read; a concurrent transition makes this lose
+        if (!rideRepository.tryCancel(rideId, previousStatus, reason, LocalDateTime.now())) {
+            throw transitionRejected(rideId, "cancelled");
+        }
+        rideCache.transitioned(rideId);
+        ride = findRide(rideId);
+        if (previousStatus == RideStatus.REQUESTED) {
+            demandHeatmap.requestClosed(ride);
+            dispatchEngine.offerResolved(rideId);
         }
-
-        ride.setStatus(RideStatus.CANCELLED);
-        ride.setCancelledAt(LocalDateTime.now());
-        ride.setCancellationReason(reason);
-        ride = rideRepository.save(ride);
 
         eventPublisher.publishRideCancelled(buildEvent(ride));
 
@@ -211,22 +154,100 @@ public class RideService {
 
     // =================== QUERY METHODS ===================
     public RideResponse getRide(Long rideId) {
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new RuntimeException("Ride not found: " + rideId));
-        return mapToResponse(ride);
+        return rideCache.get(rideId, () -> mapToResponse(findRide(rideId)));
     }
 
+    /** The rider's newest {@value #MAX_HISTORY_PAGE_SIZE} rides; use {@link #getRiderHistoryPage} for the rest. */
+    @Deprecated
     public List<RideResponse> getRiderHistory(Long riderId) {
-        return rideRepository.findByRiderIdOrderByCreatedAtDesc(riderId)
+        return rideRepository.findByRiderIdOrderByCreatedAtDescIdDesc(riderId, PageRequest.of(0, MAX_HISTORY_PAGE_SIZE))
                 .stream().map(this::mapToResponse).toList();
     }
 
+    /** The driver's newest {@value #MAX_HISTORY_PAGE_SIZE} rides; use {@link #getDriverHistoryPage} for the rest. */
+    @Deprecated
     public List<RideResponse> getDriverHistory(Long driverId) {
-        return rideRepository.findByDriverIdOrderByCreatedAtDesc(driverId)
+        return rideRepository.findByDriverIdOrderByCreatedAtDescIdDesc(driverId, PageRequest.of(0, MAX_HISTORY_PAGE_SIZE))
                 .stream().map(this::mapToResponse).toList();
     }
 
+    public RideHistoryResponse getRiderHistoryPage(Long riderId, String cursor, int limit) {
+        int size = pageSize(limit);
+        // one extra row tells whether another page exists
+        Pageable page = PageRequest.of(0, size + 1);
+        List<RideSummaryResponse> rides;
+        if (cursor == null) {
+            rides = rideRepository.findRiderHistory(riderId, page);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rides = rideRepository.findRiderHistoryBefore(riderId, after.createdAt(), after.id(), page);
+        }
+        return toHistoryPage(rides, size);
+    }
+
+    public RideHistoryResponse getDriverHistoryPage(Long driverId, String cursor, int limit) {
+        int size = pageSize(limit);
+        Pageable page = PageRequest.of(0, size + 1);
+        List<RideSummaryResponse> rides;
+        if (cursor == null) {
+            rides = rideRepository.findDriverHistory(driverId, page);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            rides = rideRepository.findDriverHistoryBefore(driverId, after.createdAt(), after.id(), page);
+        }
+        return toHistoryPage(rides, size);
+    }
+
+    public HeatmapResponse getDemandHeatmap() {
+        return demandHeatmap.snapshot();
+    }
+
+    /** Renders the human-readable breakdown from the stored components, only when asked for. */
+    public RideResponse withFareBreakdown(RideResponse response) {
+        if (response.getBaseFare() == null) {
+            response.setFareBreakdown(response.getLegacyFareBreakdown() != null
+                    ? response.getLegacyFareBreakdown()
+                    : "Estimated fare (pricing service unavailable): ₹" + response.getFare());
+            return response;
+        }
+        response.setFareBreakdown(String.format(
+                "Base: ₹%.2f + Distance(%.1fkm): ₹%.2f + Time(%.0fmin): ₹%.2f + Surge(%.1fx): ₹%.2f = Total: ₹%.2f",
+                response.getBaseFare(),
+                response.getDistanceInKm(), response.getDistanceCharge(),
+                response.getEstimatedDurationMinutes(), response.getTimeCharge(),
+                response.getSurgeMultiplier(), response.getSurgeCharge(),
+                response.getFare()
+        ));
+        return response;
+    }
+
     // =================== HELPERS ===================
+    private Ride findRide(Long rideId) {
+        return rideRepository.findById(rideId)
+                .orElseThrow(() -> new RuntimeException("Ride not found: " + rideId));
+    }
+
+    private RuntimeException transitionRejected(Long rideId, String action) {
+        Ride ride = findRide(rideId);
+        return new RuntimeException("Ride cannot be " + action + ". Current status: " + ride.getStatus());
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+    }
+
+    private RideHistoryResponse toHistoryPage(List<RideSummaryResponse> rides, int pageSize) {
+        if (rides.size() <= pageSize) {
+            return RideHistoryResponse.builder().rides(rides).build();
+        }
+        List<RideSummaryResponse> pageRides = rides.subList(0, pageSize);
+        RideSummaryResponse last = pageRides.get(pageSize - 1);
+        return RideHistoryResponse.builder()
+                .rides(pageRides)
+                .nextCursor(new HistoryCursor(last.getCreatedAt(), last.getId()).encode())
+                .build();
+    }
+
     private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
         final int R = 6371;
         double dLat = Math.toRadians(lat2 - lat1);
@@ -272,7 +293,12 @@ public class RideService {
                 .distanceInKm(ride.getDistanceInKm())
                 .estimatedDurationMinutes(ride.getEstimatedDurationMinutes())
                 .fare(ride.getFare())
-                .fareBreakdown(ride.getFareBreakdown())
+                .baseFare(ride.getBaseFare())
+                .distanceCharge(ride.getDistanceCharge())
+                .timeCharge(ride.getTimeCharge())
+                .surgeMultiplier(ride.getSurgeMultiplier())
+                .surgeCharge(ride.getSurgeCharge())
+                .legacyFareBreakdown(ride.getLegacyFareBreakdown())
                 .createdAt(ride.getCreatedAt())
                 .acceptedAt(ride.getAcceptedAt())
                 .startedAt(ride.getStartedAt())
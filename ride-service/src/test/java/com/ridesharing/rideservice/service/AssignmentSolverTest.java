@@ -0,0 +1,122 @@
+package com.ridesharing.rideservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentSolverTest {
+
+    @Test
+    void hungarianMatchesBruteForceOnSmallWindows() {
+        Random random = new Random(21);
+        for (int round = 0; round < 500; round++) {
+            int rides = 1 + random.nextInt(6);
+            int drivers = 1 + random.nextInt(6);
+            List<AssignmentSolver.Edge> edges = randomEdges(random, rides, drivers);
+
+            List<AssignmentSolver.Edge> assignment = AssignmentSolver.solve(rides, drivers, edges, 200);
+
+            assertValid(edges, assignment);
+            double[] best = bruteForce(rides, edges);
+            assertEquals((int) best[0], assignment.size(), "round " + round + " matched");
+            assertEquals(best[1], totalCost(assignment), 1e-9, "round " + round + " cost");
+        }
+    }
+
+    @Test
+    void prefersTheGloballyCheaperPairing() {
+        // greedy would give driver 0 to ride 0 (cost 1) and leave ride 1 with a 10 km pickup
+        List<AssignmentSolver.Edge> edges = List.of(
+                new AssignmentSolver.Edge(0, 0, 1.0),
+                new AssignmentSolver.Edge(0, 1, 2.0),
+                new AssignmentSolver.Edge(1, 0, 1.5),
+                new AssignmentSolver.Edge(1, 1, 10.0));
+
+        List<AssignmentSolver.Edge> assignment = AssignmentSolver.solve(2, 2, edges, 200);
+
+        assertEquals(3.5, totalCost(assignment), 1e-9);
+    }
+
+    @Test
+    void oversizedComponentsFallBackToAValidGreedyMatching() {
+        Random random = new Random(5);
+        for (int round = 0; round < 100; round++) {
+            int rides = 1 + random.nextInt(30);
+            int drivers = 1 + random.nextInt(30);
+            List<AssignmentSolver.Edge> edges = randomEdges(random, rides, drivers);
+
+            List<AssignmentSolver.Edge> assignment = AssignmentSolver.solve(rides, drivers, edges, 2);
+
+            assertValid(edges, assignment);
+            // greedy is maximal: every unmatched edge touches a matched ride or driver
+            Set<Integer> matchedRides = new HashSet<>();
+            Set<Integer> matchedDrivers = new HashSet<>();
+            assignment.forEach(edge -> {
+                matchedRides.add(edge.ride());
+                matchedDrivers.add(edge.driver());
+            });
+            for (AssignmentSolver.Edge edge : edges) {
+                assertTrue(matchedRides.contains(edge.ride()) || matchedDrivers.contains(edge.driver()));
+            }
+        }
+    }
+
+    @Test
+    void noEdgesMeansNoAssignment() {
+        assertTrue(AssignmentSolver.solve(3, 0, List.of(), 200).isEmpty());
+        assertTrue(AssignmentSolver.solve(0, 0, List.of(), 200).isEmpty());
+    }
+
+    private static List<AssignmentSolver.Edge> randomEdges(Random random, int rides, int drivers) {
+        List<AssignmentSolver.Edge> edges = new ArrayList<>();
+        for (int ride = 0; ride < rides; ride++) {
+            for (int driver = 0; driver < drivers; driver++) {
+                if (random.nextInt(3) != 0) {
+                    edges.add(new AssignmentSolver.Edge(ride, driver, Math.round(random.nextDouble() * 500) / 100.0));
+                }
+            }
+        }
+        return edges;
+    }
+
+    private static void assertValid(List<AssignmentSolver.Edge> edges, List<AssignmentSolver.Edge> assignment) {
+        Set<Integer> rides = new HashSet<>();
+        Set<Integer> drivers = new HashSet<>();
+        for (AssignmentSolver.Edge edge : assignment) {
+            assertTrue(edges.contains(edge), "not a candidate edge: " + edge);
+            assertTrue(rides.add(edge.ride()), "ride matched twice: " + edge.ride());
+            assertTrue(drivers.add(edge.driver()), "driver matched twice: " + edge.driver());
+        }
+    }
+
+    /** {most rides matched, least total cost among those} over every matching. */
+    private static double[] bruteForce(int rides, List<AssignmentSolver.Edge> edges) {
+        double[] best = {0, 0};
+        search(0, rides, edges, new HashSet<>(), 0, 0, best);
+        return best;
+    }
+
+    private static void search(int ride, int rides, List<AssignmentSolver.Edge> edges, Set<Integer> usedDrivers,
+                               int matched, double cost, double[] best) {
+        if (ride == rides) {
+            if (matched > best[0] || (matched == best[0] && cost < best[1])) {
+                best[0] = matched;
+                best[1] = cost;
+            }
+            return;
+        }
+        search(ride + 1, rides, edges, usedDrivers, matched, cost, best);
+        for (AssignmentSolver.Edge edge : edges) {
+            if (edge.ride() == ride && usedDrivers.add(edge.driver())) {
+                search(ride + 1, rides, edges, usedDrivers, matched + 1, cost + edge.cost(), best);
+                usedDrivers.remove(edge.driver());
+            }
+        }
+    }
+
+    private static double totalCost(List<AssignmentSolver.Edge> assignment) {
+        return assignment.stream().mapToDouble(AssignmentSolver.Edge::cost).sum();
+    }
+}
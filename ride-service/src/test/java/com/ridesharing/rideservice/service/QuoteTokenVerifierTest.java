@@ -0,0 +1,118 @@
+package com.ridesharing.rideservice.service;
+
+import com.ridesharing.rideservice.dto.FareQuote;
+import com.ridesharing.rideservice.dto.RideBookingRequest;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteTokenVerifierTest {
+
+    private static final String SECRET = "test-quote-secret";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final QuoteTokenVerifier verifier = new QuoteTokenVerifier(SECRET, 0.5);
+
+    @Test
+    void validTokenRoundTripsTheQuotedFare() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        Optional<FareQuote> quote = verifier.verify(booking(sign(SECRET, payload("SEDAN", 245.6, expiresAt))), 12.5);
+
+        assertTrue(quote.isPresent());
+        assertEquals(245.6, quote.get().getTotalFare());
+        assertEquals(50.0, quote.get().getBaseFare());
+        assertEquals(148.8, quote.get().getDistanceCharge());
+        assertEquals(46.5, quote.get().getTimeCharge());
+        assertEquals(1.0, quote.get().getSurgeMultiplier());
+        assertEquals(0.0, quote.get().getSurgeCharge());
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        String token = sign(SECRET, payload("SEDAN", 245.6, expiresAt));
+        String forgedPayload = ENCODER.encodeToString(
+                payload("SEDAN", 45.6, expiresAt).getBytes(StandardCharsets.UTF_8));
+        String tampered = forgedPayload + token.substring(token.indexOf('.'));
+
+        assertTrue(verifier.verify(booking(tampered), 12.4).isEmpty());
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretIsRejected() {
+        String token = sign("another-secret", payload("SEDAN", 245.6, System.currentTimeMillis() + 60_000));
+        assertTrue(verifier.verify(booking(token), 12.4).isEmpty());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = sign(SECRET, payload("SEDAN", 245.6, System.currentTimeMillis() - 1));
+        assertTrue(verifier.verify(booking(token), 12.4).isEmpty());
+    }
+
+    @Test
+    void tokenForAnotherTripIsRejected() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        String token = sign(SECRET, payload("SEDAN", 245.6, expiresAt));
+
+        RideBookingRequest otherType = booking(token);
+        otherType.setVehicleType("SUV");
+        assertTrue(verifier.verify(otherType, 12.4).isEmpty());
+
+        RideBookingRequest otherPickup = booking(token);
+        otherPickup.setPickupLatitude(28.6415);
+        assertTrue(verifier.verify(otherPickup, 12.4).isEmpty());
+
+        assertTrue(verifier.verify(booking(token), 13.4).isEmpty());
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertTrue(verifier.verify(booking("not-a-token"), 12.4).isEmpty());
+        assertTrue(verifier.verify(booking("!!!.???"), 12.4).isEmpty());
+        assertTrue(verifier.verify(booking(sign(SECRET, "v1|SEDAN")), 12.4).isEmpty());
+        assertTrue(verifier.verify(booking(null), 12.4).isEmpty());
+    }
+
+    @Test
+    void missingSecretFailsFast() {
+        assertThrows(IllegalStateException.class, () -> new QuoteTokenVerifier("", 0.5));
+        assertThrows(IllegalStateException.class, () -> new QuoteTokenVerifier(" ", 0.5));
+        assertThrows(IllegalStateException.class, () -> new QuoteTokenVerifier(null, 0.5));
+    }
+
+    /** Same field order as pricing-service's QuoteTokenSigner. */
+    private static String payload(String vehicleType, double totalFare, long expiresAtMillis) {
+        return String.join("|", "v1", vehicleType, "28.6315", "77.2167", "12.4", "31.0",
+                String.valueOf(totalFare), "50.0", "148.8", "46.5", "1.0", "0.0", String.valueOf(expiresAtMillis));
+    }
+
+    private static String sign(String secret, String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+            return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(mac.doFinal(bytes));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static RideBookingRequest booking(String quoteToken) {
+        return RideBookingRequest.builder()
+                .riderId(1L)
+                .pickupLatitude(28.6316)
+                .pickupLongitude(77.2166)
+                .dropoffLatitude(28.5823)
+                .dropoffLongitude(77.0500)
+                .vehicleType("SEDAN")
+                .quoteToken(quoteToken)
+                .build();
+    }
+}
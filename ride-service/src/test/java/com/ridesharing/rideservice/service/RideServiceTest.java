@@ -0,0 +1,126 @@
+package com.ridesharing.rideservice.service;
+
+import com.ridesharing.rideservice.dto.RideHistoryResponse;
+import com.ridesharing.rideservice.dto.RideSummaryResponse;
+import com.ridesharing.rideservice.repository.RideRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RideServiceTest {
+
+    private static final long RIDER_ID = 42L;
+
+    private final List<RideSummaryResponse> rows = new ArrayList<>();
+    private final List<Pageable> legacyPages = new ArrayList<>();
+    private RideService rideService;
+
+    @BeforeEach
+    void setUp() {
+        // the history queries, emulated over the rows: newest first, then strictly below the cursor
+        RideRepository rideRepository = (RideRepository) Proxy.newProxyInstance(
+                RideRepository.class.getClassLoader(), new Class<?>[]{RideRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findRiderHistory" -> page(null, 0, (Pageable) args[1]);
+                    case "findRiderHistoryBefore" -> page((LocalDateTime) args[1], (Long) args[2], (Pageable) args[3]);
+                    case "findByRiderIdOrderByCreatedAtDescIdDesc" -> {
+                        legacyPages.add((Pageable) args[1]);
+                        yield List.of();
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        // history paging touches nothing but the repository
+        rideService = new RideService(rideRepository, null, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void cursorPagesThroughRidesSharingACreatedAt() {
+        LocalDateTime noon = LocalDateTime.of(2024, 5, 1, 12, 0);
+        // ids deliberately out of insertion order; five rides tie on noon across page boundaries
+        rows.add(summary(3L, noon.plusMinutes(5)));
+        rows.add(summary(9L, noon));
+        rows.add(summary(4L, noon));
+        rows.add(summary(12L, noon));
+        rows.add(summary(7L, noon));
+        rows.add(summary(5L, noon));
+        rows.add(summary(11L, noon.minusMinutes(5)));
+        rows.add(summary(2L, noon.minusMinutes(5)));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            RideHistoryResponse page = rideService.getRiderHistoryPage(RIDER_ID, cursor, 3);
+            assertTrue(page.getRides().size() <= 3);
+            page.getRides().forEach(ride -> seen.add(ride.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(3L, 12L, 9L, 7L, 5L, 4L, 11L, 2L), seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void lastFullPageHasNoCursor() {
+        LocalDateTime noon = LocalDateTime.of(2024, 5, 1, 12, 0);
+        rows.add(summary(1L, noon));
+        rows.add(summary(2L, noon));
+
+        RideHistoryResponse page = rideService.getRiderHistoryPage(RIDER_ID, null, 2);
+
+        assertEquals(2, page.getRides().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void legacyListHistoryLoadsOnlyTheNewestPage() {
+        assertTrue(rideService.getRiderHistory(RIDER_ID).isEmpty());
+
+        assertEquals(1, legacyPages.size());
+        assertEquals(0, legacyPages.get(0).getPageNumber());
+        assertEquals(100, legacyPages.get(0).getPageSize());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(RuntimeException.class, () -> rideService.getRiderHistoryPage(RIDER_ID, "not-a-cursor", 3));
+        assertThrows(RuntimeException.class, () -> HistoryCursor.decode("%%%"));
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        HistoryCursor cursor = new HistoryCursor(LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_000_000), 17L);
+
+        assertEquals(cursor, HistoryCursor.decode(cursor.encode()));
+    }
+
+    private List<RideSummaryResponse> page(LocalDateTime createdAt, long id, Pageable pageable) {
+        return rows.stream()
+                .filter(row -> createdAt == null
+                        || row.getCreatedAt().isBefore(createdAt)
+                        || (row.getCreatedAt().isEqual(createdAt) && row.getId() < id))
+                .sorted(Comparator.comparing(RideSummaryResponse::getCreatedAt)
+                        .thenComparing(RideSummaryResponse::getId)
+                        .reversed())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private static RideSummaryResponse summary(Long id, LocalDateTime createdAt) {
+        return RideSummaryResponse.builder()
+                .id(id)
+                .riderId(RIDER_ID)
+                .createdAt(createdAt)
+                .build();
+    }
+}